@@ -0,0 +1,115 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.client.ConsistentHashRing;
+import ru.practicum.shareit.client.ServerInstance;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AffinityRoutingBenchmark {
+
+    public static final int KEYS_COUNT = 1 << 16;
+    public static final int VIRTUAL_NODES = 160;
+
+    @Param({"CONSISTENT_HASH", "ROUND_ROBIN"})
+    private String routing;
+
+    @Param({"4"})
+    private int instancesCount;
+
+    @Param({"20000"})
+    private int usersCount;
+
+    @Param({"2000"})
+    private int cacheSize;
+
+    private List<ServerInstance> instances;
+    private ConsistentHashRing ring;
+    private Map<ServerInstance, Map<String, Boolean>> caches;
+    private String[] keys;
+    private int next;
+    private int roundRobin;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CacheCounters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        instances = IntStream.range(0, instancesCount)
+                .mapToObj(i -> new ServerInstance("http://server-" + i + ":9090"))
+                .collect(Collectors.toList());
+        ring = new ConsistentHashRing(instances, VIRTUAL_NODES);
+        caches = new IdentityHashMap<>();
+        for (ServerInstance instance : instances) {
+            caches.put(instance, lruCache(cacheSize));
+        }
+
+        Random random = new Random(42);
+        keys = new String[KEYS_COUNT];
+        for (int i = 0; i < KEYS_COUNT; i++) {
+            int user = (int) (usersCount * Math.pow(random.nextDouble(), 3));
+            keys[i] = "user:" + user;
+        }
+    }
+
+    @Benchmark
+    public boolean route(CacheCounters counters) {
+        String key = keys[next++ & (KEYS_COUNT - 1)];
+        ServerInstance instance = "CONSISTENT_HASH".equals(routing)
+                ? ring.route(key, i -> true)
+                : instances.get(Math.floorMod(roundRobin++, instances.size()));
+
+        Map<String, Boolean> cache = caches.get(instance);
+        if (cache.get(key) != null) {
+            counters.hits++;
+            return true;
+        }
+        counters.misses++;
+        cache.put(key, Boolean.TRUE);
+        return false;
+    }
+
+    private static Map<String, Boolean> lruCache(int capacity) {
+        return new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.Getter;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.request.Request;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+public class BenchmarkData {
+
+    public static final long OWNER_ID = 1L;
+    public static final int COMMENTS_PER_ITEM = 3;
+    public static final int BOOKINGS_PER_ITEM = 4;
+
+    private final User owner = new User(OWNER_ID, "owner", "owner@email.com");
+    private final List<Item> items = new ArrayList<>();
+    private final List<Request> requests = new ArrayList<>();
+    private final List<Comment> comments = new ArrayList<>();
+    private final List<Booking> bookings = new ArrayList<>();
+    private final Map<Long, List<Item>> itemsByRequestId = new HashMap<>();
+
+    public BenchmarkData(int itemsCount) {
+        LocalDateTime now = LocalDateTime.now();
+        long id = 1;
+        for (int i = 0; i < itemsCount; i++) {
+            User author = new User(OWNER_ID + i + 1, "user" + i, "user" + i + "@email.com");
+            Request request = new Request(id++, "request " + i, author, now.minusDays(i));
+            Item item = new Item(id++, "item " + i, "description " + i, true, owner, request);
+            requests.add(request);
+            items.add(item);
+            itemsByRequestId.put(request.getId(), List.of(item));
+            for (int c = 0; c < COMMENTS_PER_ITEM; c++) {
+                comments.add(new Comment(id++, "comment " + c, item, author, now.minusHours(c)));
+            }
+            for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                LocalDateTime start = now.plusDays(b * 2L - BOOKINGS_PER_ITEM);
+                bookings.add(new Booking(id++, start, start.plusDays(1), item, author, BookingStatus.APPROVED));
+            }
+        }
+    }
+}
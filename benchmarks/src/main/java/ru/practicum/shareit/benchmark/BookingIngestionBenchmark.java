@@ -0,0 +1,97 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingPostDto;
+import ru.practicum.shareit.booking.dto.BookingPostResponseDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class BookingIngestionBenchmark {
+
+    @Param({"false", "true"})
+    private boolean ingestion;
+
+    @Param({ServerContext.DEFAULT_URL})
+    private String url;
+
+    @Param({"test"})
+    private String username;
+
+    @Param({"test"})
+    private String password;
+
+    @Param({"1000"})
+    private int itemsCount;
+
+    private final AtomicLong slots = new AtomicLong();
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    private ConfigurableApplicationContext context;
+    private BookingController controller;
+    private long[] itemIds;
+    private long bookerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ServerContext.start(url, username, password,
+                "spring.datasource.hikari.maximum-pool-size=32",
+                "shareit.booking-ingestion.enabled=" + ingestion);
+        controller = context.getBean(BookingController.class);
+
+        UserService userService = context.getBean(UserService.class);
+        ItemService itemService = context.getBean(ItemService.class);
+        String run = String.valueOf(System.nanoTime());
+        long ownerId = userService.createUser(new UserDto(null, "owner", "owner" + run + "@bench.com")).getId();
+        bookerId = userService.createUser(new UserDto(null, "booker", "booker" + run + "@bench.com")).getId();
+        itemIds = new long[itemsCount];
+        for (int i = 0; i < itemsCount; i++) {
+            ItemDto item = new ItemDto();
+            item.setName("item" + i);
+            item.setDescription("description");
+            item.setAvailable(true);
+            itemIds[i] = itemService.createItem(item, ownerId).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingPostResponseDto createBooking() {
+        long slot = slots.getAndIncrement();
+        LocalDateTime start = base.plusHours(slot / itemIds.length);
+        BookingPostDto dto = new BookingPostDto(null, itemIds[(int) (slot % itemIds.length)], start,
+                start.plusMinutes(30));
+        return controller.createBooking(dto, bookerId);
+    }
+}
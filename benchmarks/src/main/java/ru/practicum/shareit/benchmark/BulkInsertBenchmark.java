@@ -0,0 +1,96 @@
+package ru.practicum.shareit.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    @Param({"0", "50"})
+    private int batchSize;
+
+    @Param({"500"})
+    private int rowsCount;
+
+    @Param({ServerContext.DEFAULT_URL})
+    private String url;
+
+    @Param({"test"})
+    private String username;
+
+    @Param({"test"})
+    private String password;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory emf;
+    private Statistics statistics;
+    private long next;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StatementCounters {
+        public long statements;
+        public long rows;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ServerContext.start(url, username, password,
+                "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false");
+        emf = context.getBean(EntityManagerFactory.class);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void insertUsersWithItems(StatementCounters counters) {
+        long statementsBefore = statistics.getPrepareStatementCount();
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            for (int i = 0; i < rowsCount; i++) {
+                long id = next++;
+                User owner = new User(null, "owner" + id, "owner" + id + "@bulk.com");
+                em.persist(owner);
+                em.persist(new Item(null, "item" + id, "description", true, owner, null));
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+        counters.statements += statistics.getPrepareStatementCount() - statementsBefore;
+        counters.rows += 2L * rowsCount;
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class InMemoryRepositories {
+
+    public static final String UNSUPPORTED_METHOD_MESSAGE = "метод не поддерживается в бенчмарке: ";
+
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> repository, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (proxy, method, args) -> {
+                    Function<Object[], Object> handler = methods.get(method.getName());
+                    if (handler == null) {
+                        throw new UnsupportedOperationException(UNSUPPORTED_METHOD_MESSAGE + method.getName());
+                    }
+                    return handler.apply(args);
+                });
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.ItemCalendarCache;
+import ru.practicum.shareit.item.ItemCalendarProperties;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(size);
+
+        ItemRepository itemRepository = InMemoryRepositories.stub(ItemRepository.class,
+                Map.of("findByOwnerId", args -> new PageImpl<>(data.getItems())));
+        CommentRepository commentRepository = InMemoryRepositories.stub(CommentRepository.class,
+                Map.of("findAllByItemIdIn", args -> data.getComments()));
+        BookingRepository bookingRepository = InMemoryRepositories.stub(BookingRepository.class,
+                Map.of("findLastAndNextByItemIds", args -> data.getBookings()));
+        UserRepository userRepository = InMemoryRepositories.stub(UserRepository.class, Map.of());
+
+        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository,
+                new ItemCalendarCache(new ItemCalendarProperties(), new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public List<ItemDto> findAllItems() {
+        return itemService.findAllItems(BenchmarkData.OWNER_ID, 0, size);
+    }
+}
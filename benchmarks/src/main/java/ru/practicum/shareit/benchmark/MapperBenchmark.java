@@ -0,0 +1,92 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingDetailedDto;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.DetailedCommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.request.RequestMapper;
+import ru.practicum.shareit.request.dto.RequestWithItemsDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private BenchmarkData data;
+    private Item item;
+    private Booking lastBooking;
+    private Booking nextBooking;
+    private List<Booking> itemBookings;
+    private List<Comment> itemComments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new BenchmarkData(size);
+        item = data.getItems().get(0);
+        itemBookings = data.getBookings().subList(0, BenchmarkData.BOOKINGS_PER_ITEM);
+        itemComments = data.getComments().subList(0, BenchmarkData.COMMENTS_PER_ITEM);
+        lastBooking = itemBookings.get(0);
+        nextBooking = itemBookings.get(itemBookings.size() - 1);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return ItemMapper.toDto(item);
+    }
+
+    @Benchmark
+    public ItemDto itemToDtoWithComments() {
+        return ItemMapper.toDto(item, itemComments);
+    }
+
+    @Benchmark
+    public ItemDto itemToDtoWithLastAndNext() {
+        return ItemMapper.toDto(item, lastBooking, nextBooking, itemComments);
+    }
+
+    @Benchmark
+    public ItemDto itemToDtoWithBookings() {
+        return ItemMapper.toDto(item, data.getBookings(), itemComments);
+    }
+
+    @Benchmark
+    public List<BookingDetailedDto> bookingsToDetailedDtoList() {
+        return BookingMapper.toListDetailedDto(data.getBookings());
+    }
+
+    @Benchmark
+    public List<DetailedCommentDto> commentsToDetailedDtoList() {
+        return CommentMapper.toCommentDetailedDtoList(data.getComments());
+    }
+
+    @Benchmark
+    public List<RequestWithItemsDto> requestsToDtoList() {
+        return RequestMapper.toRequestWithItemsDtoList(data.getRequests(), data.getItemsByRequestId());
+    }
+}
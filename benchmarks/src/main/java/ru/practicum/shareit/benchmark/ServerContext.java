@@ -0,0 +1,47 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import ru.practicum.shareit.ShareItServer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ServerContext {
+
+    public static final String DEFAULT_URL = "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1";
+    private static final String GATEWAY_CLIENT_PACKAGE = "ru.practicum.shareit.client.";
+
+    public static ConfigurableApplicationContext start(String url, String username, String password,
+                                                       String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.driverClassName=" + DatabaseDriver.fromJdbcUrl(url).getDriverClassName(),
+                "--spring.datasource.username=" + username,
+                "--spring.datasource.password=" + password,
+                "--logging.level.root=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .registerSingleton("gatewayClientExcludeFilter", new GatewayClientExcludeFilter()))
+                .run(args.toArray(new String[0]));
+    }
+
+    private static class GatewayClientExcludeFilter extends TypeExcludeFilter {
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getClassMetadata().getClassName().startsWith(GATEWAY_CLIENT_PACKAGE);
+        }
+    }
+}
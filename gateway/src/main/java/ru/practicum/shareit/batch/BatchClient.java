@@ -0,0 +1,310 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.batch.dto.SubRequestDto;
+import ru.practicum.shareit.batch.dto.SubResponseDto;
+import ru.practicum.shareit.client.AbortHandle;
+import ru.practicum.shareit.client.AbortableRequestFactory;
+import ru.practicum.shareit.errorhandler.ErrorResponse;
+import ru.practicum.shareit.errorhandler.ServerUnavailableException;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchClient {
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    public static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+    public static final String BATCH_REQUEST_HEADER = "X-Batch-Request";
+    public static final String BATCH_TIMEOUT_MESSAGE = "пакетный запрос не уложился в отведённое время: ";
+    public static final String BATCH_LIMIT_MESSAGE = "превышен лимит одновременных пакетных запросов: ";
+    public static final String INVALID_PATH_MESSAGE = "недопустимый путь вложенного запроса: ";
+    public static final String INVALID_URI_MESSAGE = "некорректный URI вложенного запроса: ";
+    private static final Pattern TARGET_PATH = Pattern.compile("^/(users|items|bookings|requests)(/[\\w-]+)*/?$");
+    private static final AbortHandle NOT_STARTED = new AbortHandle();
+    private static final List<String> FORWARDED_HEADERS = List.of(
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            "X-Next-Cursor",
+            HttpHeaders.RETRY_AFTER
+    );
+
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate rest;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final Semaphore batchPermits;
+    private final int maxConcurrent;
+    private final int parallelism;
+    private final long timeoutNanos;
+    private volatile String baseUrl;
+
+    public BatchClient(RestTemplateBuilder builder, ObjectMapper objectMapper, BatchProperties properties,
+                       ServerProperties serverProperties) {
+        int workerThreads = serverProperties.getTomcat().getThreads().getMax();
+        if (properties.getMaxConcurrent() + properties.getThreads() >= workerThreads) {
+            throw new IllegalArgumentException("gateway.batch.max-concurrent + gateway.batch.threads должно быть " +
+                    "меньше server.tomcat.threads.max: " + workerThreads);
+        }
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getThreads());
+        connectionManager.setDefaultMaxPerRoute(properties.getThreads());
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setSocketTimeout((int) properties.getTimeout().toMillis())
+                        .build())
+                .disableCookieManagement()
+                .build();
+        this.rest = builder
+                .requestFactory(() -> new AbortableRequestFactory(httpClient))
+                .build();
+        this.objectMapper = objectMapper;
+        this.batchPermits = new Semaphore(properties.getMaxConcurrent());
+        this.maxConcurrent = properties.getMaxConcurrent();
+        this.parallelism = properties.getParallelism();
+        this.timeoutNanos = properties.getTimeout().toNanos();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(properties.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "gateway-batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if (event.getApplicationContext().getServerNamespace() == null) {
+            baseUrl = "http://localhost:" + event.getWebServer().getPort();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Не удалось закрыть HTTP-клиент пакетных запросов", e);
+        }
+    }
+
+    public List<SubResponseDto> execute(List<SubRequestDto> requests, Long userId, String clientAddress) {
+        List<HttpEntity<byte[]>> entities = new ArrayList<>(requests.size());
+        List<URI> uris = new ArrayList<>(requests.size());
+        for (SubRequestDto request : requests) {
+            entities.add(new HttpEntity<>(serialize(request), headers(userId, clientAddress)));
+            uris.add(resolve(request.getPath()));
+        }
+
+        if (!batchPermits.tryAcquire()) {
+            throw new ServerUnavailableException(BATCH_LIMIT_MESSAGE + maxConcurrent);
+        }
+        try {
+            AtomicReferenceArray<SubResponseDto> responses = new AtomicReferenceArray<>(requests.size());
+            long deadline = System.nanoTime() + timeoutNanos;
+            int from = 0;
+            while (from < requests.size()) {
+                int to = from + 1;
+                if (requests.get(from).getMethod() == HttpMethod.GET) {
+                    while (to < requests.size() && requests.get(to).getMethod() == HttpMethod.GET) {
+                        to++;
+                    }
+                }
+                if (!runStage(requests, uris, entities, responses, from, to, deadline)) {
+                    break;
+                }
+                from = to;
+            }
+
+            List<SubResponseDto> result = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                SubResponseDto response = responses.get(i);
+                result.add(response != null ? response : notExecuted());
+            }
+            return result;
+        } finally {
+            batchPermits.release();
+        }
+    }
+
+    private boolean runStage(List<SubRequestDto> requests, List<URI> uris, List<HttpEntity<byte[]>> entities,
+                             AtomicReferenceArray<SubResponseDto> responses, int from, int to, long deadline) {
+        AtomicReferenceArray<AbortHandle> handles = new AtomicReferenceArray<>(requests.size());
+        AtomicInteger next = new AtomicInteger(from);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int w = 0; w < Math.min(parallelism, to - from); w++) {
+            workers.add(executor.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < to) {
+                    AbortHandle handle = new AbortHandle();
+                    if (!handles.compareAndSet(i, null, handle)) {
+                        return;
+                    }
+                    int index = i;
+                    SubResponseDto response = uris.get(index) == null
+                            ? invalidUri(requests.get(index).getPath())
+                            : AbortHandle.track(handle, () -> send(requests.get(index).getMethod(),
+                                    uris.get(index), entities.get(index)));
+                    responses.compareAndSet(index, null, response);
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> worker : workers) {
+                worker.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+            return true;
+        } catch (TimeoutException e) {
+            log.warn("{}{} мс", BATCH_TIMEOUT_MESSAGE, TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+
+        for (int i = from; i < to; i++) {
+            if (!handles.compareAndSet(i, null, NOT_STARTED)) {
+                responses.compareAndSet(i, null, unknown());
+                handles.get(i).abort();
+            }
+        }
+        workers.forEach(worker -> worker.cancel(true));
+        return false;
+    }
+
+    private URI resolve(String path) {
+        URI uri;
+        try {
+            uri = new URI(baseUrl + path);
+        } catch (URISyntaxException e) {
+            log.warn("{}{}", INVALID_URI_MESSAGE, e.getMessage());
+            return null;
+        }
+        URI normalized = uri.normalize();
+        if (!normalized.equals(uri) || !TARGET_PATH.matcher(normalized.getPath()).matches()) {
+            throw new IllegalArgumentException(INVALID_PATH_MESSAGE + path);
+        }
+        return normalized;
+    }
+
+    private SubResponseDto send(HttpMethod method, URI uri, HttpEntity<byte[]> entity) {
+        try {
+            ResponseEntity<byte[]> response = rest.exchange(uri, method, entity, byte[].class);
+            return toSubResponse(response.getStatusCode(), response.getHeaders(), response.getBody());
+        } catch (HttpStatusCodeException e) {
+            return toSubResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+        } catch (ResourceAccessException e) {
+            return new SubResponseDto(HttpStatus.SERVICE_UNAVAILABLE.value(), Map.of(),
+                    toJson(new ErrorResponse("Сервер недоступен", e.getMessage())));
+        }
+    }
+
+    private SubResponseDto invalidUri(String path) {
+        return new SubResponseDto(HttpStatus.BAD_REQUEST.value(), Map.of(),
+                toJson(new ErrorResponse("Передано недопустимое значение 400: ", INVALID_URI_MESSAGE + path)));
+    }
+
+    private SubResponseDto unknown() {
+        return new SubResponseDto(HttpStatus.GATEWAY_TIMEOUT.value(), Map.of(),
+                toJson(new ErrorResponse("Результат неизвестен", BATCH_TIMEOUT_MESSAGE
+                        + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " мс, запрос мог быть выполнен")));
+    }
+
+    private SubResponseDto notExecuted() {
+        return new SubResponseDto(HttpStatus.SERVICE_UNAVAILABLE.value(), Map.of(),
+                toJson(new ErrorResponse("Запрос не выполнен", BATCH_TIMEOUT_MESSAGE
+                        + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " мс")));
+    }
+
+    private SubResponseDto toSubResponse(HttpStatus status, HttpHeaders upstreamHeaders, byte[] body) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (upstreamHeaders != null) {
+            for (String name : FORWARDED_HEADERS) {
+                String value = upstreamHeaders.getFirst(name);
+                if (value != null) {
+                    headers.put(name, value);
+                }
+            }
+        }
+        String json = body == null || body.length == 0 ? null : new String(body, StandardCharsets.UTF_8);
+        return new SubResponseDto(status.value(), headers, json);
+    }
+
+    private HttpHeaders headers(Long userId, String clientAddress) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.set(BATCH_REQUEST_HEADER, "true");
+        if (userId != null) {
+            headers.set(USER_ID_HEADER, String.valueOf(userId));
+        }
+        if (clientAddress != null) {
+            headers.set(FORWARDED_FOR_HEADER, clientAddress);
+        }
+        return headers;
+    }
+
+    private byte[] serialize(SubRequestDto request) {
+        if (request.getBody() == null || request.getBody().isNull()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(request.getBody());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.batch;
+
+import lombok.AllArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.SubResponseDto;
+import ru.practicum.shareit.ratelimit.RateLimitFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping(path = "/batch")
+public class BatchController {
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final BatchClient batchClient;
+
+    @PostMapping
+    public List<SubResponseDto> execute(@Validated @RequestBody BatchRequestDto batchRequestDto,
+                                        @RequestHeader(value = USER_ID_HEADER, required = false) Long userId,
+                                        HttpServletRequest request) {
+        return batchClient.execute(batchRequestDto.getRequests(), userId, RateLimitFilter.clientAddress(request));
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.batch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.batch")
+public class BatchProperties {
+    private int maxConcurrent = 16;
+    private int threads = 32;
+    private int parallelism = 4;
+    private Duration timeout = Duration.ofSeconds(30);
+}
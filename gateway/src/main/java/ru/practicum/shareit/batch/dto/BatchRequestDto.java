@@ -0,0 +1,23 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequestDto {
+    public static final int MAX_REQUESTS = 20;
+
+    @NotEmpty
+    @Size(max = MAX_REQUESTS)
+    private List<@Valid SubRequestDto> requests;
+}
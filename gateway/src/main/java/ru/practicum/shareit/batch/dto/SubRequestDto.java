@@ -0,0 +1,29 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.http.HttpMethod;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubRequestDto {
+    public static final String PATH_REGEXP = "^/(users|items|bookings|requests)(/[\\w-]+)*/?(\\?.*)?$";
+
+    @NotNull
+    private HttpMethod method;
+
+    @NotBlank
+    @Pattern(regexp = PATH_REGEXP)
+    private String path;
+
+    private JsonNode body;
+}
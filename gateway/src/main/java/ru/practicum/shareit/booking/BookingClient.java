@@ -1,29 +1,47 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingPostDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.LoadBalancer;
+import ru.practicum.shareit.client.RequestHedger;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UpstreamGuard;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private static final List<String> INVALIDATED_PATHS = List.of("/bookings", "/items");
     public static final String BOOKING_INVALID_MESSAGE = "недопустимые значения времени бронирования: ";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory,
+                         ResponseCache responseCache,
+                         SingleFlight singleFlight,
+                         UpstreamGuard upstreamGuard,
+                         LoadBalancer loadBalancer,
+                         RequestHedger hedger) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                responseCache,
+                singleFlight,
+                upstreamGuard,
+                loadBalancer,
+                hedger,
+                INVALIDATED_PATHS
         );
     }
 
@@ -63,4 +81,22 @@ public class BookingClient extends BaseClient {
         );
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
-}
\ No newline at end of file
+
+    public ResponseEntity<Object> findAllByBooker(String state, Long userId, String after, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "after", after,
+                "size", size
+        );
+        return get("?state={state}&after={after}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> findAllByItemOwner(String state, Long userId, String after, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "after", after,
+                "size", size
+        );
+        return get("/owner?state={state}&after={after}&size={size}", userId, parameters);
+    }
+}
@@ -17,6 +17,7 @@ import javax.validation.constraints.PositiveOrZero;
 public class BookingController {
     public static final String DEFAULT_STATE_VALUE = "ALL";
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    public static final String CURSOR_SIZE_MESSAGE = "недопустимый размер страницы курсора size: ";
     private final BookingClient bookingClient;
 
     @PostMapping
@@ -44,7 +45,12 @@ public class BookingController {
                                                   @RequestParam(defaultValue = "0")
                                                   @Min(0) int from,
                                                   @RequestParam(defaultValue = "20")
-                                                  @PositiveOrZero int size) {
+                                                  @PositiveOrZero int size,
+                                                  @RequestParam(required = false) String after) {
+        if (after != null) {
+            checkCursorSize(size);
+            return bookingClient.findAllByBooker(state, userId, after, size);
+        }
         return bookingClient.findAllByBooker(state, userId, from, size);
     }
 
@@ -54,7 +60,18 @@ public class BookingController {
                                           @RequestParam(defaultValue = "0")
                                           @Min(0) int from,
                                           @RequestParam(defaultValue = "20")
-                                          @PositiveOrZero int size) {
+                                          @PositiveOrZero int size,
+                                          @RequestParam(required = false) String after) {
+        if (after != null) {
+            checkCursorSize(size);
+            return bookingClient.findAllByItemOwner(state, userId, after, size);
+        }
         return bookingClient.findAllByItemOwner(state, userId, from, size);
     }
+
+    private void checkCursorSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException(CURSOR_SIZE_MESSAGE + size);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.methods.HttpUriRequest;
+
+import java.util.function.Supplier;
+
+public class AbortHandle {
+    private static final ThreadLocal<AbortHandle> CURRENT = new ThreadLocal<>();
+
+    private HttpUriRequest request;
+    private boolean aborted;
+
+    public static <T> T track(AbortHandle handle, Supplier<T> call) {
+        CURRENT.set(handle);
+        try {
+            return call.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    public static boolean isCurrentAborted() {
+        AbortHandle handle = CURRENT.get();
+        return handle != null && handle.isAborted();
+    }
+
+    static void attachCurrent(HttpUriRequest request) {
+        AbortHandle handle = CURRENT.get();
+        if (handle != null) {
+            handle.attach(request);
+        }
+    }
+
+    public synchronized void abort() {
+        aborted = true;
+        if (request != null) {
+            request.abort();
+        }
+    }
+
+    public synchronized boolean isAborted() {
+        return aborted;
+    }
+
+    private synchronized void attach(HttpUriRequest request) {
+        this.request = request;
+        if (aborted) {
+            request.abort();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+public class AbortableRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    public AbortableRequestFactory(HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    @Override
+    protected void postProcessHttpRequest(HttpUriRequest request) {
+        AbortHandle.attachCurrent(request);
+    }
+}
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.client;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
@@ -13,10 +17,32 @@ import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final List<String> FORWARDED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            "X-Next-Cursor"
+    );
 
-    public BaseClient(RestTemplate rest) {
+    protected final RestTemplate rest;
+    private final ResponseCache responseCache;
+    private final SingleFlight singleFlight;
+    private final UpstreamGuard upstreamGuard;
+    private final LoadBalancer loadBalancer;
+    private final RequestHedger hedger;
+    private final List<String> invalidatedPaths;
+
+    public BaseClient(RestTemplate rest, ResponseCache responseCache, SingleFlight singleFlight,
+                      UpstreamGuard upstreamGuard, LoadBalancer loadBalancer, RequestHedger hedger,
+                      List<String> invalidatedPaths) {
         this.rest = rest;
+        this.responseCache = responseCache;
+        this.singleFlight = singleFlight;
+        this.upstreamGuard = upstreamGuard;
+        this.loadBalancer = loadBalancer;
+        this.hedger = hedger;
+        this.invalidatedPaths = invalidatedPaths;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -92,17 +118,88 @@ public class BaseClient {
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
                                                           @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+
+        if (method == HttpMethod.GET) {
+            return sendGet(uri, userId);
+        }
+        ResponseEntity<Object> response = send(method, uri, userId, defaultHeaders(userId), body);
+        responseCache.invalidate(invalidatedPaths(method, uri));
+        return response;
+    }
+
+    protected List<String> invalidatedPaths(HttpMethod method, URI uri) {
+        return invalidatedPaths;
+    }
+
+    private ResponseEntity<Object> sendGet(URI uri, Long userId) {
+        String flightKey = singleFlight.key(uri, userId);
+        if (!responseCache.isCacheable(uri)) {
+            return singleFlight.execute(flightKey,
+                    () -> send(HttpMethod.GET, uri, userId, defaultHeaders(userId), null));
+        }
+
+        String key = responseCache.key(uri, userId);
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null && responseCache.isFresh(uri, cached, System.nanoTime())) {
+            responseCache.recordHit();
+            return cached.toResponse();
+        }
+        return singleFlight.execute(flightKey, () -> sendCachedGet(key, uri, userId));
+    }
+
+    private ResponseEntity<Object> sendCachedGet(String key, URI uri, Long userId) {
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null && responseCache.isFresh(uri, cached, System.nanoTime())) {
+            responseCache.recordHit();
+            return cached.toResponse();
+        }
+
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null && cached.getEtag() != null) {
+            headers.setIfNoneMatch(cached.getEtag());
+        }
+        long generation = responseCache.generation();
+        ResponseEntity<Object> response = send(HttpMethod.GET, uri, userId, headers, null);
 
-        ResponseEntity<Object> shareitServerResponse;
+        if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            responseCache.recordRevalidation();
+            responseCache.put(key, cached.revalidated(System.nanoTime()), generation);
+            return cached.toResponse();
+        }
+        responseCache.recordMiss();
+        if (response.getStatusCode() == HttpStatus.OK && response.getHeaders().getETag() != null) {
+            responseCache.put(key, new CachedResponse(response.getHeaders(), (byte[]) response.getBody(),
+                    System.nanoTime()), generation);
+        }
+        return response;
+    }
+
+    private <T> ResponseEntity<Object> send(HttpMethod method, URI uri, Long userId, HttpHeaders headers,
+                                            @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+
+        Function<URI, ResponseEntity<Object>> call = instanceUri -> exchange(instanceUri, method, requestEntity);
+
+        if (method == HttpMethod.GET && hedger.isHedged(uri)) {
+            List<ServerInstance> tried = new CopyOnWriteArrayList<>();
+            return upstreamGuard.execute(() -> hedger.execute(
+                    () -> loadBalancer.execute(method, uri, userId, tried, call),
+                    () -> loadBalancer.executeHedge(uri, userId, tried, call)));
+        }
+        return upstreamGuard.execute(() -> loadBalancer.execute(method, uri, userId, call));
+    }
+
+    private <T> ResponseEntity<Object> exchange(URI uri, HttpMethod method, HttpEntity<T> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
+            shareitServerResponse = rest.exchange(uri, method, requestEntity, byte[].class);
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(forwardedHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
@@ -117,12 +214,23 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static HttpHeaders forwardedHeaders(@Nullable HttpHeaders upstreamHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (upstreamHeaders == null) {
+            return headers;
         }
+        for (String name : FORWARDED_HEADERS) {
+            List<String> values = upstreamHeaders.get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        return headers;
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(forwardedHeaders(response.getHeaders()));
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
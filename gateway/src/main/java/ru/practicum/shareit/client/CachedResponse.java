@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+@Getter
+@AllArgsConstructor
+public class CachedResponse {
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final long fetchedAt;
+
+    public String getEtag() {
+        return headers.getETag();
+    }
+
+    public CachedResponse revalidated(long now) {
+        return new CachedResponse(headers, body, now);
+    }
+
+    public ResponseEntity<Object> toResponse() {
+        return ResponseEntity.status(HttpStatus.OK).headers(headers).body(body);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class ConsistentHashRing {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] points;
+    private final ServerInstance[] owners;
+
+    public ConsistentHashRing(List<ServerInstance> instances, int virtualNodes) {
+        int size = instances.size() * virtualNodes;
+        long[][] nodes = new long[size][];
+        int n = 0;
+        for (int i = 0; i < instances.size(); i++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                nodes[n++] = new long[]{hash(instances.get(i).getUrl() + "#" + v), i};
+            }
+        }
+        Arrays.sort(nodes, (a, b) -> Long.compare(a[0], b[0]));
+
+        this.points = new long[size];
+        this.owners = new ServerInstance[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = nodes[i][0];
+            owners[i] = instances.get((int) nodes[i][1]);
+        }
+    }
+
+    @Nullable
+    public ServerInstance route(String key, Predicate<ServerInstance> eligible) {
+        int start = Arrays.binarySearch(points, hash(key));
+        if (start < 0) {
+            start = -start - 1;
+        }
+        for (int i = 0; i < points.length; i++) {
+            ServerInstance owner = owners[(start + i) % points.length];
+            if (eligible.test(owner)) {
+                return owner;
+            }
+        }
+        return null;
+    }
+
+    static long hash(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
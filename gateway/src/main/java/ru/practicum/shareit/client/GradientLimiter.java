@@ -0,0 +1,74 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GradientLimiter {
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double DROP_FACTOR = 0.9;
+    private static final double LONG_RTT_DRIFT = 2.0;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final int rttWindow;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double longRtt;
+
+    public GradientLimiter(UpstreamProperties.Limiter properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.smoothing = properties.getSmoothing();
+        this.rttWindow = properties.getRttWindow();
+        this.limit = properties.getInitialLimit();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+        onSample(rttNanos, dropped);
+    }
+
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, boolean dropped) {
+        if (dropped) {
+            limit = Math.max(minLimit, limit * DROP_FACTOR);
+            return;
+        }
+        if (longRtt == 0) {
+            longRtt = rttNanos;
+        } else {
+            longRtt += (rttNanos - longRtt) / rttWindow;
+        }
+        if (longRtt / rttNanos > LONG_RTT_DRIFT) {
+            longRtt = (longRtt + rttNanos) / 2;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, longRtt / rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HedgeBudget {
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long max;
+    private final AtomicLong balance = new AtomicLong();
+
+    public HedgeBudget(double ratio, int maxHedges) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.max = maxHedges * SCALE;
+    }
+
+    public void onRequest() {
+        balance.accumulateAndGet(deposit, (current, add) -> Math.min(max, current + add));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    public double getBalance() {
+        return (double) balance.get() / SCALE;
+    }
+}
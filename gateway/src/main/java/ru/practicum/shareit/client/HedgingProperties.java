@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.hedging")
+public class HedgingProperties {
+    private boolean enabled = false;
+    private List<String> paths = new ArrayList<>(List.of("/bookings", "/items"));
+    private double percentile = 0.95;
+    private Duration minDelay = Duration.ofMillis(20);
+    private int latencyWindow = 1000;
+    private double budgetRatio = 0.05;
+    private int maxBudget = 10;
+    private int threads = 64;
+}
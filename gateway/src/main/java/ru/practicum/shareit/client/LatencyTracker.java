@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LatencyTracker {
+    private final long[] samples;
+    private final double percentile;
+    private final int recalculateEvery;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicBoolean recalculating = new AtomicBoolean();
+    private volatile long threshold = -1;
+
+    public LatencyTracker(int window, double percentile) {
+        this.samples = new long[window];
+        this.percentile = percentile;
+        this.recalculateEvery = Math.max(1, window / 10);
+    }
+
+    public void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples[(int) (n % samples.length)] = nanos;
+        if ((n + 1) % recalculateEvery == 0 && recalculating.compareAndSet(false, true)) {
+            try {
+                recalculate(Math.min(n + 1, samples.length));
+            } finally {
+                recalculating.set(false);
+            }
+        }
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+
+    private void recalculate(long size) {
+        long[] sorted = Arrays.copyOf(samples, (int) size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        threshold = sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
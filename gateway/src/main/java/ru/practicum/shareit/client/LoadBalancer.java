@@ -0,0 +1,277 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(LoadBalancerProperties.class)
+public class LoadBalancer {
+    public static final String METRIC_PREFIX = "gateway.upstream.instance";
+    static final Set<HttpStatus> RETRIED_STATUSES = EnumSet.of(
+            HttpStatus.BAD_GATEWAY,
+            HttpStatus.SERVICE_UNAVAILABLE,
+            HttpStatus.GATEWAY_TIMEOUT
+    );
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final Pattern ENTITY_PATH = Pattern.compile("^/(item|user)s/(\\d+)");
+
+    private final LoadBalancerProperties properties;
+    private final List<ServerInstance> instances;
+    private final ConsistentHashRing ring;
+    private final RestTemplate healthClient;
+    private final LongSupplier clock;
+    private final MeterRegistry meterRegistry;
+    private final Counter retries;
+    private ScheduledExecutorService healthChecker;
+
+    @Autowired
+    public LoadBalancer(@Value("${shareit-server.url}") List<String> serverUrls, LoadBalancerProperties properties,
+                        MeterRegistry meterRegistry) {
+        this(serverUrls, properties, meterRegistry, System::nanoTime);
+    }
+
+    LoadBalancer(List<String> serverUrls, LoadBalancerProperties properties, MeterRegistry meterRegistry,
+                 LongSupplier clock) {
+        if (serverUrls.isEmpty()) {
+            throw new IllegalArgumentException("не задан ни один адрес сервера: shareit-server.url");
+        }
+        this.properties = properties;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.instances = serverUrls.stream()
+                .map(String::trim)
+                .map(ServerInstance::new)
+                .collect(Collectors.toUnmodifiableList());
+        this.ring = new ConsistentHashRing(instances, properties.getVirtualNodes());
+        this.healthClient = new RestTemplateBuilder()
+                .setConnectTimeout(properties.getHealthCheckTimeout())
+                .setReadTimeout(properties.getHealthCheckTimeout())
+                .build();
+        this.retries = Counter.builder("gateway.upstream.retries").register(meterRegistry);
+
+        for (ServerInstance instance : instances) {
+            Gauge.builder(METRIC_PREFIX + ".outstanding", instance, ServerInstance::getOutstanding)
+                    .tag("instance", instance.getUrl())
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".available", instance, i -> i.isAvailable(clock.getAsLong()) ? 1 : 0)
+                    .tag("instance", instance.getUrl())
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void startHealthChecks() {
+        long interval = properties.getHealthCheckInterval().toMillis();
+        if (instances.size() < 2 || interval <= 0) {
+            return;
+        }
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shareit-server-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopHealthChecks() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+    }
+
+    public List<ServerInstance> getInstances() {
+        return instances;
+    }
+
+    public ResponseEntity<Object> execute(HttpMethod method, URI uri, @Nullable Long userId,
+                                          Function<URI, ResponseEntity<Object>> call) {
+        return execute(method, uri, userId, new ArrayList<>(), call);
+    }
+
+    public ResponseEntity<Object> execute(HttpMethod method, URI uri, @Nullable Long userId,
+                                          List<ServerInstance> tried, Function<URI, ResponseEntity<Object>> call) {
+        int attempts = Math.min(method == HttpMethod.GET ? properties.getGetRetries() + 1 : 1, instances.size());
+        return attempt(method, uri, routingKey(uri, userId), tried, attempts, call);
+    }
+
+    public ResponseEntity<Object> executeHedge(URI uri, @Nullable Long userId, List<ServerInstance> avoided,
+                                               Function<URI, ResponseEntity<Object>> call) {
+        List<ServerInstance> tried = new ArrayList<>(avoided);
+        return attempt(HttpMethod.GET, uri, routingKey(uri, userId), tried, tried.size() + 1, call);
+    }
+
+    private ResponseEntity<Object> attempt(HttpMethod method, URI uri, @Nullable String affinityKey,
+                                           List<ServerInstance> tried, int attempts,
+                                           Function<URI, ResponseEntity<Object>> call) {
+        while (true) {
+            ServerInstance instance = choose(tried, affinityKey);
+            tried.add(instance);
+            boolean lastAttempt = tried.size() >= attempts;
+
+            instance.acquire();
+            long start = System.nanoTime();
+            String status = "IO_ERROR";
+            try {
+                ResponseEntity<Object> response = call.apply(instance.resolve(uri));
+                status = String.valueOf(response.getStatusCodeValue());
+                if (!RETRIED_STATUSES.contains(response.getStatusCode())) {
+                    instance.onSuccess();
+                    return response;
+                }
+                onFailure(instance);
+                if (lastAttempt) {
+                    return response;
+                }
+            } catch (ResourceAccessException e) {
+                if (AbortHandle.isCurrentAborted()) {
+                    status = "ABORTED";
+                    throw e;
+                }
+                onFailure(instance);
+                if (lastAttempt) {
+                    throw e;
+                }
+            } finally {
+                instance.release();
+                recordRequest(method, uri, instance, status, System.nanoTime() - start);
+            }
+            retries.increment();
+        }
+    }
+
+    ServerInstance choose(List<ServerInstance> excluded, @Nullable String affinityKey) {
+        long now = clock.getAsLong();
+        if (affinityKey != null) {
+            ServerInstance owner = ring.route(affinityKey,
+                    instance -> !excluded.contains(instance) && instance.isAvailable(now));
+            if (owner == null) {
+                owner = ring.route(affinityKey, instance -> !excluded.contains(instance));
+            }
+            return owner != null ? owner : ring.route(affinityKey, instance -> true);
+        }
+
+        List<ServerInstance> candidates = instances.stream()
+                .filter(instance -> !excluded.contains(instance) && instance.isAvailable(now))
+                .collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            candidates = instances.stream()
+                    .filter(instance -> !excluded.contains(instance))
+                    .collect(Collectors.toList());
+        }
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (properties.getStrategy() == LoadBalancerProperties.Strategy.POWER_OF_TWO_CHOICES) {
+            int first = random.nextInt(size);
+            int second = random.nextInt(size - 1);
+            if (second >= first) {
+                second++;
+            }
+            ServerInstance a = candidates.get(first);
+            ServerInstance b = candidates.get(second);
+            return a.getOutstanding() <= b.getOutstanding() ? a : b;
+        }
+
+        int offset = random.nextInt(size);
+        ServerInstance best = candidates.get(offset);
+        for (int i = 1; i < size; i++) {
+            ServerInstance candidate = candidates.get((offset + i) % size);
+            if (candidate.getOutstanding() < best.getOutstanding()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    @Nullable
+    private String routingKey(URI uri, @Nullable Long userId) {
+        return properties.getStrategy() == LoadBalancerProperties.Strategy.CONSISTENT_HASH
+                ? affinityKey(uri, userId)
+                : null;
+    }
+
+    @Nullable
+    static String affinityKey(URI uri, @Nullable Long userId) {
+        Matcher matcher = ENTITY_PATH.matcher(uri.getRawPath());
+        if (matcher.find()) {
+            return matcher.group(1) + ":" + matcher.group(2);
+        }
+        return userId == null ? null : "user:" + userId;
+    }
+
+    void checkHealth() {
+        URI healthPath = URI.create(properties.getHealthPath());
+        for (ServerInstance instance : instances) {
+            boolean healthy;
+            try {
+                healthy = healthClient.getForEntity(instance.resolve(healthPath), String.class)
+                        .getStatusCode()
+                        .is2xxSuccessful();
+            } catch (RestClientException e) {
+                healthy = false;
+            }
+            if (healthy != instance.isHealthy()) {
+                log.warn("Сервер {} {}", instance.getUrl(), healthy ? "снова доступен" : "не прошёл проверку здоровья");
+            }
+            instance.setHealthy(healthy);
+        }
+    }
+
+    private void recordRequest(HttpMethod method, URI uri, ServerInstance instance, String status, long nanos) {
+        Timer.builder("gateway.upstream.requests")
+                .tag("method", method.name())
+                .tag("uri", ID_SEGMENT.matcher(uri.getRawPath()).replaceAll("/{id}"))
+                .tag("status", status)
+                .tag("instance", instance.getUrl())
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void onFailure(ServerInstance instance) {
+        if (instance.onFailure(clock.getAsLong(), properties.getFailureThreshold(),
+                properties.getEjectDuration().toNanos())) {
+            log.warn("Сервер {} временно исключён из балансировки на {}", instance.getUrl(),
+                    properties.getEjectDuration());
+        }
+    }
+}
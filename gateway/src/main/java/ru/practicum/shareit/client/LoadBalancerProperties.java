@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LoadBalancerProperties {
+    private Strategy strategy = Strategy.POWER_OF_TWO_CHOICES;
+    private int virtualNodes = 160;
+    private int getRetries = 1;
+    private int failureThreshold = 3;
+    private Duration ejectDuration = Duration.ofSeconds(30);
+    private String healthPath = "/actuator/health";
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    public enum Strategy {
+        LEAST_OUTSTANDING,
+        POWER_OF_TWO_CHOICES,
+        CONSISTENT_HASH
+    }
+}
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Component
+@EnableConfigurationProperties(HedgingProperties.class)
+public class RequestHedger {
+    public static final String METRIC_PREFIX = "gateway.hedging";
+
+    private final boolean enabled;
+    private final List<String> paths;
+    private final long minDelayNanos;
+    private final LatencyTracker latency;
+    private final HedgeBudget budget;
+    private final ThreadPoolExecutor executor;
+    private final Counter requests;
+    private final Counter hedgesWonByPrimary;
+    private final Counter hedgesWonByHedge;
+    private final Counter budgetExhausted;
+
+    public RequestHedger(HedgingProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.paths = properties.getPaths();
+        this.minDelayNanos = properties.getMinDelay().toNanos();
+        this.latency = new LatencyTracker(properties.getLatencyWindow(), properties.getPercentile());
+        this.budget = new HedgeBudget(properties.getBudgetRatio(), properties.getMaxBudget());
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, properties.getThreads(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "gateway-hedging-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.requests = Counter.builder(METRIC_PREFIX + ".requests").register(meterRegistry);
+        this.hedgesWonByPrimary = hedgeCounter(meterRegistry, "primary");
+        this.hedgesWonByHedge = hedgeCounter(meterRegistry, "hedge");
+        this.budgetExhausted = Counter.builder(METRIC_PREFIX + ".budget.exhausted").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".delay", latency, l -> Math.max(l.getThreshold(), minDelayNanos) / 1e6)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".budget", budget, HedgeBudget::getBalance)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean isHedged(URI uri) {
+        return enabled && paths.stream().anyMatch(uri.getRawPath()::startsWith);
+    }
+
+    public ResponseEntity<Object> execute(Supplier<ResponseEntity<Object>> primaryCall,
+                                          Supplier<ResponseEntity<Object>> hedgeCall) {
+        requests.increment();
+        budget.onRequest();
+        long start = System.nanoTime();
+
+        AbortHandle primaryHandle = new AbortHandle();
+        CompletableFuture<ResponseEntity<Object>> primary;
+        try {
+            primary = submit(primaryHandle, primaryCall);
+        } catch (RejectedExecutionException e) {
+            return record(start, primaryCall.get());
+        }
+
+        long threshold = latency.getThreshold();
+        if (threshold < 0) {
+            return record(start, join(primary));
+        }
+        try {
+            return record(start, primary.get(Math.max(threshold, minDelayNanos), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            return hedge(start, primary, primaryHandle, hedgeCall);
+        } catch (InterruptedException e) {
+            primaryHandle.abort();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private ResponseEntity<Object> hedge(long start, CompletableFuture<ResponseEntity<Object>> primary,
+                                         AbortHandle primaryHandle, Supplier<ResponseEntity<Object>> hedgeCall) {
+        if (!budget.tryAcquire()) {
+            budgetExhausted.increment();
+            return record(start, join(primary));
+        }
+
+        AbortHandle hedgeHandle = new AbortHandle();
+        CompletableFuture<ResponseEntity<Object>> hedge;
+        try {
+            hedge = submit(hedgeHandle, hedgeCall);
+        } catch (RejectedExecutionException e) {
+            return record(start, join(primary));
+        }
+
+        CompletableFuture<ResponseEntity<Object>> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((response, error) -> complete(winner, failures, response, error));
+        hedge.whenComplete((response, error) -> complete(winner, failures, response, error));
+
+        ResponseEntity<Object> response;
+        try {
+            response = join(winner);
+        } finally {
+            primaryHandle.abort();
+            hedgeHandle.abort();
+        }
+
+        boolean primaryWon = primary.isDone() && !primary.isCompletedExceptionally() && primary.join() == response;
+        (primaryWon ? hedgesWonByPrimary : hedgesWonByHedge).increment();
+        latency.record(System.nanoTime() - start);
+        return response;
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> submit(AbortHandle handle,
+                                                             Supplier<ResponseEntity<Object>> call) {
+        return CompletableFuture.supplyAsync(() -> AbortHandle.track(handle, call), executor);
+    }
+
+    private ResponseEntity<Object> record(long start, ResponseEntity<Object> response) {
+        latency.record(System.nanoTime() - start);
+        return response;
+    }
+
+    private static void complete(CompletableFuture<ResponseEntity<Object>> winner, AtomicInteger failures,
+                                 ResponseEntity<Object> response, Throwable error) {
+        if (error == null) {
+            winner.complete(response);
+        } else if (failures.incrementAndGet() == 2) {
+            winner.completeExceptionally(error);
+        }
+    }
+
+    private static ResponseEntity<Object> join(CompletableFuture<ResponseEntity<Object>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof RuntimeException) {
+            return (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        return new IllegalStateException(error);
+    }
+
+    private static Counter hedgeCounter(MeterRegistry meterRegistry, String winner) {
+        return Counter.builder(METRIC_PREFIX + ".hedges")
+                .tag("winner", winner)
+                .register(meterRegistry);
+    }
+}
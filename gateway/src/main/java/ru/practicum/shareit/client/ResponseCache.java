@@ -0,0 +1,118 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache {
+    public static final String METRIC_NAME = "gateway.response.cache";
+    private static final String KEY_SEPARATOR = "|";
+    private static final String QUERY_SEPARATOR = "?";
+
+    private final boolean enabled;
+    private final List<Pattern> paths;
+    private final List<Pattern> revalidatedPaths;
+    private final long ttlNanos;
+    private final Cache<String, CachedResponse> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter revalidations;
+    private final Counter misses;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.paths = compile(properties.getPaths());
+        this.revalidatedPaths = compile(properties.getRevalidatedPaths());
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getMaxStale())
+                .build();
+        this.hits = counter(meterRegistry, "hit");
+        this.revalidations = counter(meterRegistry, "revalidated");
+        this.misses = counter(meterRegistry, "miss");
+        Gauge.builder(METRIC_NAME + ".size", cache, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    public boolean isCacheable(URI uri) {
+        return enabled && uri.getRawQuery() == null && matches(paths, uri.getRawPath());
+    }
+
+    public String key(URI uri, @Nullable Long userId) {
+        String query = uri.getRawQuery() == null ? "" : QUERY_SEPARATOR + uri.getRawQuery();
+        return uri.getRawPath() + query + KEY_SEPARATOR + (userId == null ? "" : userId);
+    }
+
+    @Nullable
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public boolean isFresh(URI uri, CachedResponse response, long now) {
+        return !matches(revalidatedPaths, uri.getRawPath()) && now - response.getFetchedAt() < ttlNanos;
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String key, CachedResponse response, long observedGeneration) {
+        if (generation.get() == observedGeneration) {
+            cache.put(key, response);
+        }
+    }
+
+    public void invalidate(List<String> invalidatedPaths) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> {
+            String path = pathOf(key);
+            return invalidatedPaths.stream().anyMatch(invalidated ->
+                    path.equals(invalidated) || path.startsWith(invalidated + "/"));
+        });
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordRevalidation() {
+        revalidations.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    private static String pathOf(String key) {
+        int end = key.indexOf(QUERY_SEPARATOR);
+        return key.substring(0, end < 0 ? key.lastIndexOf(KEY_SEPARATOR) : end);
+    }
+
+    private static boolean matches(List<Pattern> patterns, String path) {
+        return patterns.stream().anyMatch(pattern -> pattern.matcher(path).matches());
+    }
+
+    private static List<Pattern> compile(List<String> regexps) {
+        return regexps.stream().map(Pattern::compile).collect(Collectors.toList());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_NAME)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+    private boolean enabled = false;
+    private List<String> paths = new ArrayList<>(List.of("/users/\\d+", "/items/\\d+", "/requests/\\d+"));
+    private List<String> revalidatedPaths = new ArrayList<>(List.of("/items/\\d+"));
+    private long maximumSize = 10_000;
+    private Duration ttl = Duration.ofSeconds(5);
+    private Duration maxStale = Duration.ofMinutes(10);
+}
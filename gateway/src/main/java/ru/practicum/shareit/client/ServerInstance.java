@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ServerInstance {
+    @Getter
+    private final String url;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    @Getter
+    private volatile boolean healthy = true;
+    private volatile boolean ejected;
+    private volatile long ejectedUntil;
+
+    public ServerInstance(String url) {
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    public URI resolve(URI relative) {
+        return URI.create(url + relative);
+    }
+
+    public boolean isAvailable(long now) {
+        return healthy && (!ejected || now - ejectedUntil >= 0);
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public void acquire() {
+        outstanding.incrementAndGet();
+    }
+
+    public void release() {
+        outstanding.decrementAndGet();
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        ejected = false;
+    }
+
+    public boolean onFailure(long now, int failureThreshold, long ejectNanos) {
+        if (consecutiveFailures.incrementAndGet() < failureThreshold) {
+            return false;
+        }
+        consecutiveFailures.set(0);
+        ejectedUntil = now + ejectNanos;
+        ejected = true;
+        return true;
+    }
+
+    public void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+        if (healthy) {
+            consecutiveFailures.set(0);
+            ejected = false;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.single-flight")
+public class SingleFlightProperties {
+    private boolean enabled = true;
+    private List<String> userIndependentPaths = List.of("/items/search");
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.errorhandler.ServerUnavailableException;
+
+import java.util.function.Supplier;
+
+@Component
+@EnableConfigurationProperties(UpstreamProperties.class)
+public class UpstreamGuard {
+    public static final String METRIC_PREFIX = "gateway.upstream";
+    public static final String CIRCUIT_OPEN_MESSAGE = "сервер недоступен, запросы временно не выполняются";
+    public static final String LIMIT_EXCEEDED_MESSAGE = "превышен лимит одновременных запросов к серверу: ";
+
+    private final boolean limiterEnabled;
+    private final boolean breakerEnabled;
+    private final GradientLimiter limiter;
+    private final CircuitBreaker breaker;
+    private final Counter circuitRejections;
+    private final Counter limitRejections;
+
+    public UpstreamGuard(UpstreamProperties properties, MeterRegistry meterRegistry) {
+        this.limiterEnabled = properties.getLimiter().isEnabled();
+        this.breakerEnabled = properties.getBreaker().isEnabled();
+        this.limiter = new GradientLimiter(properties.getLimiter());
+        this.breaker = new CircuitBreaker(properties.getBreaker(), System::nanoTime);
+        this.circuitRejections = rejectionCounter(meterRegistry, "circuit");
+        this.limitRejections = rejectionCounter(meterRegistry, "limit");
+
+        Gauge.builder(METRIC_PREFIX + ".limit", limiter, GradientLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".in.flight", limiter, GradientLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".circuit.state", breaker, b -> b.getState().ordinal())
+                .description("0 - closed, 1 - open, 2 - half open")
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<Object> execute(Supplier<ResponseEntity<Object>> call) {
+        if (limiterEnabled && !limiter.tryAcquire()) {
+            limitRejections.increment();
+            throw new ServerUnavailableException(LIMIT_EXCEEDED_MESSAGE + limiter.getLimit());
+        }
+        if (breakerEnabled && !breaker.tryAcquire()) {
+            if (limiterEnabled) {
+                limiter.cancel();
+            }
+            circuitRejections.increment();
+            throw new ServerUnavailableException(CIRCUIT_OPEN_MESSAGE);
+        }
+
+        long start = System.nanoTime();
+        boolean failed = false;
+        boolean dropped = false;
+        try {
+            ResponseEntity<Object> response = call.get();
+            failed = LoadBalancer.RETRIED_STATUSES.contains(response.getStatusCode());
+            return response;
+        } catch (ResourceAccessException e) {
+            failed = true;
+            dropped = true;
+            throw e;
+        } finally {
+            if (limiterEnabled) {
+                limiter.release(System.nanoTime() - start, dropped);
+            }
+            if (breakerEnabled) {
+                breaker.onResult(failed);
+            }
+        }
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(METRIC_PREFIX + ".rejected")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
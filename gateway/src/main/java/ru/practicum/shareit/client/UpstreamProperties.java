@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.upstream")
+public class UpstreamProperties {
+    private Limiter limiter = new Limiter();
+    private Breaker breaker = new Breaker();
+
+    @Getter
+    @Setter
+    public static class Limiter {
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        private double smoothing = 0.2;
+        private int rttWindow = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Breaker {
+        private boolean enabled = true;
+        private int windowSize = 50;
+        private int minimumCalls = 20;
+        private double failureRateThreshold = 0.5;
+        private Duration openDuration = Duration.ofSeconds(5);
+        private int halfOpenCalls = 5;
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j(topic = "access")
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !log.isInfoEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            String query = request.getQueryString();
+            String userId = request.getHeader(USER_ID_HEADER);
+            log.info("{} {}{} {} {}ms user={}", request.getMethod(), request.getRequestURI(),
+                    query == null ? "" : "?" + query, response.getStatus(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), userId == null ? "-" : userId);
+        }
+    }
+}
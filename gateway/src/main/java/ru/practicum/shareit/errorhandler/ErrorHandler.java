@@ -25,6 +25,13 @@ public class ErrorHandler {
         return new ErrorResponse("Передано недопустимое значение 400: ", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handle(ServerUnavailableException e) {
+        log.warn("Сервер недоступен", e);
+        return new ErrorResponse("Сервис временно недоступен 503: ", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handle(Throwable e) {
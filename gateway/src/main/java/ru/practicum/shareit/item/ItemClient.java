@@ -1,32 +1,69 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.LoadBalancer;
+import ru.practicum.shareit.client.RequestHedger;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UpstreamGuard;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final String SEARCH_INTERVAL_INVALID_MESSAGE = "недопустимый интервал поиска: ";
+    private static final String CALENDAR_INTERVAL_INVALID_MESSAGE = "недопустимый интервал календаря: ";
+    private static final List<String> INVALIDATED_PATHS = List.of("/items", "/bookings", "/requests");
+    private static final List<String> CREATE_INVALIDATED_PATHS = List.of("/requests");
+    private static final String COMMENT_PATH_SUFFIX = "/comment";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory,
+                      ResponseCache responseCache,
+                      SingleFlight singleFlight,
+                      UpstreamGuard upstreamGuard,
+                      LoadBalancer loadBalancer,
+                      RequestHedger hedger) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                responseCache,
+                singleFlight,
+                upstreamGuard,
+                loadBalancer,
+                hedger,
+                INVALIDATED_PATHS
         );
     }
 
+    @Override
+    protected List<String> invalidatedPaths(HttpMethod method, URI uri) {
+        if (method != HttpMethod.POST) {
+            return super.invalidatedPaths(method, uri);
+        }
+        String path = uri.getRawPath();
+        if (path.endsWith(COMMENT_PATH_SUFFIX)) {
+            return List.of(path.substring(0, path.length() - COMMENT_PATH_SUFFIX.length()));
+        }
+        return CREATE_INVALIDATED_PATHS;
+    }
+
     public ResponseEntity<Object> createItem(ItemDto itemDto, Long userId) {
         return post("", userId, itemDto);
     }
@@ -43,6 +80,17 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
+    public ResponseEntity<Object> findCalendar(Long itemId, Long userId, LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException(CALENDAR_INTERVAL_INVALID_MESSAGE + "start: " + start + " end: " + end);
+        }
+        Map<String, Object> parameters = Map.of(
+                "start", start,
+                "end", end
+        );
+        return get("/" + itemId + "/calendar?start={start}&end={end}", userId, parameters);
+    }
+
     public ResponseEntity<Object> findAllItems(Long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
@@ -59,4 +107,22 @@ public class ItemClient extends BaseClient {
         );
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
+
+    public ResponseEntity<Object> findItemsByRequest(String text, Long userId, LocalDateTime start, LocalDateTime end,
+                                                     int from, int size) {
+        if (start == null && end == null) {
+            return findItemsByRequest(text, userId, from, size);
+        }
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException(SEARCH_INTERVAL_INVALID_MESSAGE + "start: " + start + " end: " + end);
+        }
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -10,6 +12,7 @@ import ru.practicum.shareit.validationmarkers.Create;
 import ru.practicum.shareit.validationmarkers.Update;
 
 import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 
 @RestController
 @AllArgsConstructor
@@ -57,6 +60,14 @@ public class ItemController {
         return itemClient.findItemById(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/calendar")
+    public ResponseEntity<Object> findCalendar(@PathVariable Long itemId,
+                                               @RequestHeader(USER_ID_HEADER) Long userId,
+                                               @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime start,
+                                               @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime end) {
+        return itemClient.findCalendar(itemId, userId, start, end);
+    }
+
     @GetMapping
     public ResponseEntity<Object> findAllItems(@NotNull(message = NULL_USER_ID_MESSAGE)
                                                @RequestHeader(USER_ID_HEADER) Long userId,
@@ -68,8 +79,12 @@ public class ItemController {
     @GetMapping("/search")
     public ResponseEntity<Object> findItemsByRequest(@RequestParam String text,
                                                      @RequestHeader(USER_ID_HEADER) Long userId,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime start,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime end,
                                                      @RequestParam(defaultValue = "0") int from,
                                                      @RequestParam(defaultValue = "20") int size) {
-        return itemClient.findItemsByRequest(text, userId, from, size);
+        return itemClient.findItemsByRequest(text, userId, start, end, from, size);
     }
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.errorhandler.ErrorResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter extends OncePerRequestFilter {
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    public static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+    public static final String BATCH_REQUEST_HEADER = "X-Batch-Request";
+    public static final String METRIC_NAME = "gateway.rate.limit.rejected";
+    public static final String DEFAULT_ROUTE = "default";
+    public static final String RATE_LIMIT_MESSAGE = "превышен лимит запросов ";
+    public static final String CONCURRENCY_LIMIT_MESSAGE = "превышен лимит одновременных запросов ";
+
+    private final boolean enabled;
+    private final RateLimitProperties.Limit defaultLimit;
+    private final List<Map.Entry<String, RateLimitProperties.Limit>> routes;
+    private final Cache<String, UserLimiter> limiters;
+    private final ObjectMapper objectMapper;
+    private final Counter rateRejections;
+    private final Counter concurrencyRejections;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.defaultLimit = properties.getDefaultLimit();
+        this.routes = properties.getRoutes().entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<String, RateLimitProperties.Limit> route) ->
+                        route.getKey().length()).reversed())
+                .collect(Collectors.toList());
+        this.limiters = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumUsers())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+        this.objectMapper = objectMapper;
+        this.rateRejections = counter(meterRegistry, "rate");
+        this.concurrencyRejections = counter(meterRegistry, "concurrency");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String userId = request.getHeader(USER_ID_HEADER);
+        String client = userId == null ? "ip: " + clientAddress(request) : "userId: " + userId;
+        String path = request.getRequestURI();
+        Map.Entry<String, RateLimitProperties.Limit> route = routes.stream()
+                .filter(entry -> path.startsWith(entry.getKey()))
+                .findFirst()
+                .orElse(Map.entry(DEFAULT_ROUTE, defaultLimit));
+        long now = System.nanoTime();
+        UserLimiter limiter = limiters.get(route.getKey() + "|" + client, key -> new UserLimiter(
+                new TokenBucket(route.getValue().getRequestsPerSecond(), route.getValue().getBurst(), now),
+                new ConcurrencyLimit(route.getValue().getMaxConcurrent())));
+
+        long waitNanos = limiter.getBucket().tryConsume(now);
+        if (waitNanos > 0) {
+            rateRejections.increment();
+            reject(response, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1, RATE_LIMIT_MESSAGE + client);
+            return;
+        }
+        if (isBatchSubRequest(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.getConcurrency().tryAcquire()) {
+            concurrencyRejections.increment();
+            reject(response, 1, CONCURRENCY_LIMIT_MESSAGE + client);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.getConcurrency().release();
+        }
+    }
+
+    public static String clientAddress(HttpServletRequest request) {
+        String remoteAddress = request.getRemoteAddr();
+        String forwardedFor = request.getHeader(FORWARDED_FOR_HEADER);
+        if (forwardedFor == null || !isLoopback(remoteAddress)) {
+            return remoteAddress;
+        }
+        String[] hops = forwardedFor.split(",");
+        String client = hops[hops.length - 1].trim();
+        return client.isEmpty() ? remoteAddress : client;
+    }
+
+    private static boolean isBatchSubRequest(HttpServletRequest request) {
+        return request.getHeader(BATCH_REQUEST_HEADER) != null && isLoopback(request.getRemoteAddr());
+    }
+
+    private static boolean isLoopback(String address) {
+        return address != null && (address.startsWith("127.") || address.equals("::1")
+                || address.equals("0:0:0:0:0:0:0:1"));
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        log.warn(message);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("Слишком много запросов 429: ", message));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(METRIC_NAME)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class UserLimiter {
+        private final TokenBucket bucket;
+        private final ConcurrencyLimit concurrency;
+    }
+}
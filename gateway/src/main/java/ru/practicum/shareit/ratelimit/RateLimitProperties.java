@@ -0,0 +1,28 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private long maximumUsers = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Limit defaultLimit = new Limit();
+    private Map<String, Limit> routes = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private double requestsPerSecond = 20;
+        private int burst = 40;
+        private int maxConcurrent = 10;
+    }
+}
@@ -1,28 +1,46 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.LoadBalancer;
+import ru.practicum.shareit.client.RequestHedger;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UpstreamGuard;
 import ru.practicum.shareit.request.dto.PostRequestDto;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
+    private static final List<String> INVALIDATED_PATHS = List.of("/requests");
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory,
+                         ResponseCache responseCache,
+                         SingleFlight singleFlight,
+                         UpstreamGuard upstreamGuard,
+                         LoadBalancer loadBalancer,
+                         RequestHedger hedger) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                responseCache,
+                singleFlight,
+                upstreamGuard,
+                loadBalancer,
+                hedger,
+                INVALIDATED_PATHS
         );
     }
 
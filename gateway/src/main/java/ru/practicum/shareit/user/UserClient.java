@@ -1,29 +1,55 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.LoadBalancer;
+import ru.practicum.shareit.client.RequestHedger;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.SingleFlight;
+import ru.practicum.shareit.client.UpstreamGuard;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.net.URI;
+import java.util.List;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
+    private static final List<String> INVALIDATED_PATHS = List.of("/users", "/items", "/bookings", "/requests");
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory,
+                      ResponseCache responseCache,
+                      SingleFlight singleFlight,
+                      UpstreamGuard upstreamGuard,
+                      LoadBalancer loadBalancer,
+                      RequestHedger hedger) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                responseCache,
+                singleFlight,
+                upstreamGuard,
+                loadBalancer,
+                hedger,
+                INVALIDATED_PATHS
         );
     }
 
+    @Override
+    protected List<String> invalidatedPaths(HttpMethod method, URI uri) {
+        return method == HttpMethod.POST ? List.of() : super.invalidatedPaths(method, uri);
+    }
+
     public ResponseEntity<Object> createUser(UserDto userDto) {
         return post("", userDto);
     }
@@ -43,4 +69,4 @@ public class UserClient extends BaseClient {
     public void deleteUserById(Long userId) {
         delete("/" + userId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,258 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.SubRequestDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"gateway.response-cache.enabled=false", "gateway.single-flight.enabled=false",
+                "gateway.batch.timeout=2s"})
+public class BatchControllerTest {
+
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    public static final long LATENCY_MILLIS = 200;
+    public static final long SLOW_LATENCY_MILLIS = 5_000;
+    public static final int SEARCHES_COUNT = 4;
+
+    private static final HttpServer SERVER = startServer();
+    private static final List<String> RECEIVED = Collections.synchronizedList(new ArrayList<>());
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    private static final AtomicInteger MAX_IN_FLIGHT = new AtomicInteger();
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        RECEIVED.clear();
+        MAX_IN_FLIGHT.set(0);
+    }
+
+    @Test
+    public void executesSubRequestsAndKeepsOrderTest() throws Exception {
+        ResponseEntity<JsonNode[]> response = batch(List.of(
+                new SubRequestDto(HttpMethod.GET, "/items/1", null),
+                new SubRequestDto(HttpMethod.GET, "/items?from=0&size=10", null),
+                new SubRequestDto(HttpMethod.GET, "/bookings/owner?state=ALL&from=0&size=10", null)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode[] results = response.getBody();
+        assertEquals(3, results.length);
+        assertEquals(200, results[0].get("status").asInt());
+        assertEquals("GET /items/1", results[0].get("body").get("request").asText());
+        assertEquals("GET /bookings/owner?state=ALL&from=0&size=10", results[2].get("body").get("request").asText());
+        assertEquals("1", results[0].get("body").get("user").asText());
+    }
+
+    @Test
+    public void runsIndependentGetsInParallelTest() throws Exception {
+        List<SubRequestDto> requests = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            requests.add(new SubRequestDto(HttpMethod.GET, "/users/" + i, null));
+        }
+
+        long start = System.nanoTime();
+        ResponseEntity<JsonNode[]> response = batch(requests);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MAX_IN_FLIGHT.get() > 1, "max in flight: " + MAX_IN_FLIGHT.get());
+        assertTrue(elapsedMillis < LATENCY_MILLIS * requests.size(), "elapsed: " + elapsedMillis);
+    }
+
+    @Test
+    public void searchesAboveRouteConcurrencyCapAreNotRejectedTest() {
+        List<SubRequestDto> requests = new ArrayList<>();
+        for (int i = 1; i <= SEARCHES_COUNT; i++) {
+            requests.add(new SubRequestDto(HttpMethod.GET, "/items/search?text=item" + i, null));
+        }
+
+        ResponseEntity<JsonNode[]> response = batch(requests);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        for (JsonNode result : response.getBody()) {
+            assertEquals(200, result.get("status").asInt(), result.toString());
+        }
+        assertTrue(MAX_IN_FLIGHT.get() > 3, "max in flight: " + MAX_IN_FLIGHT.get());
+    }
+
+    @Test
+    public void runsMutationsInOrderTest() throws Exception {
+        ResponseEntity<JsonNode[]> response = batch(List.of(
+                new SubRequestDto(HttpMethod.PATCH, "/users/1", mapper.readTree("{\"name\":\"update\"}")),
+                new SubRequestDto(HttpMethod.GET, "/users/1", null)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of("PATCH /users/1", "GET /users/1"), RECEIVED);
+        assertTrue(response.getBody()[0].get("body").get("payload").asText().contains("\"name\":\"update\""));
+    }
+
+    @Test
+    public void validatesEachSubRequestTest() throws Exception {
+        ResponseEntity<JsonNode[]> response = batch(List.of(
+                new SubRequestDto(HttpMethod.POST, "/items", mapper.readTree("{\"name\":\"\"}")),
+                new SubRequestDto(HttpMethod.GET, "/items/1", null)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(400, response.getBody()[0].get("status").asInt());
+        assertEquals(200, response.getBody()[1].get("status").asInt());
+        assertEquals(List.of("GET /items/1"), RECEIVED);
+    }
+
+    @Test
+    public void rejectsMalformedUriPerSubRequestTest() {
+        ResponseEntity<JsonNode[]> response = batch(List.of(
+                new SubRequestDto(HttpMethod.GET, "/items/search?text=two words", null),
+                new SubRequestDto(HttpMethod.GET, "/items/search?text=100%", null),
+                new SubRequestDto(HttpMethod.GET, "/items/1", null)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode[] results = response.getBody();
+        assertEquals(400, results[0].get("status").asInt(), results[0].toString());
+        assertEquals(400, results[1].get("status").asInt(), results[1].toString());
+        assertEquals(200, results[2].get("status").asInt());
+        assertEquals(List.of("GET /items/1"), RECEIVED);
+    }
+
+    @Test
+    public void rejectsUnknownPathTest() {
+        ResponseEntity<String> response = rest.exchange("/batch", HttpMethod.POST,
+                entity(new BatchRequestDto(List.of(new SubRequestDto(HttpMethod.GET, "/batch", null)))),
+                String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(RECEIVED.isEmpty());
+    }
+
+    @Test
+    public void rejectsDotSegmentsTest() {
+        for (String path : List.of("/items/../batch", "/items/./1", "/items/%2e%2e/batch", "/items/.%2E/batch",
+                "/items/%2E%2E%2Fbatch")) {
+            ResponseEntity<String> response = rest.exchange("/batch", HttpMethod.POST,
+                    entity(new BatchRequestDto(List.of(new SubRequestDto(HttpMethod.GET, path, null)))),
+                    String.class);
+
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode(), path);
+        }
+        assertTrue(RECEIVED.isEmpty());
+    }
+
+    @Test
+    public void reportsUnfinishedSubRequestsOnTimeoutTest() {
+        long start = System.nanoTime();
+        ResponseEntity<JsonNode[]> response = batch(List.of(
+                new SubRequestDto(HttpMethod.GET, "/items/1", null),
+                new SubRequestDto(HttpMethod.GET, "/items/search?text=slow", null),
+                new SubRequestDto(HttpMethod.DELETE, "/users/1", null)));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(elapsedMillis < SLOW_LATENCY_MILLIS, "elapsed: " + elapsedMillis);
+        JsonNode[] results = response.getBody();
+        assertEquals(200, results[0].get("status").asInt());
+        assertEquals(504, results[1].get("status").asInt(), results[1].toString());
+        assertEquals(503, results[2].get("status").asInt());
+        assertFalse(RECEIVED.contains("DELETE /users/1"));
+    }
+
+    @Test
+    public void rejectsTooManySubRequestsTest() {
+        List<SubRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i <= BatchRequestDto.MAX_REQUESTS; i++) {
+            requests.add(new SubRequestDto(HttpMethod.GET, "/users/" + i, null));
+        }
+
+        ResponseEntity<String> response = rest.exchange("/batch", HttpMethod.POST,
+                entity(new BatchRequestDto(requests)), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private ResponseEntity<JsonNode[]> batch(List<SubRequestDto> requests) {
+        return rest.exchange("/batch", HttpMethod.POST, entity(new BatchRequestDto(requests)), JsonNode[].class);
+    }
+
+    private static HttpEntity<BatchRequestDto> entity(BatchRequestDto body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(USER_ID_HEADER, "1");
+        return new HttpEntity<>(body, headers);
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/", exchange -> {
+                String request = exchange.getRequestMethod() + " " + exchange.getRequestURI();
+                RECEIVED.add(request);
+                MAX_IN_FLIGHT.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(request.contains("slow") ? SLOW_LATENCY_MILLIS : LATENCY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    IN_FLIGHT.decrementAndGet();
+                }
+                String payload = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                byte[] body = new ObjectMapper().createObjectNode()
+                        .put("request", request)
+                        .put("user", exchange.getRequestHeaders().getFirst(USER_ID_HEADER))
+                        .put("payload", payload)
+                        .toString()
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private AtomicLong clock;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    public void beforeEach() {
+        UpstreamProperties.Breaker properties = new UpstreamProperties.Breaker();
+        properties.setWindowSize(10);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(0.5);
+        properties.setOpenDuration(Duration.ofSeconds(5));
+        properties.setHalfOpenCalls(2);
+        clock = new AtomicLong();
+        breaker = new CircuitBreaker(properties, clock::get);
+    }
+
+    @Test
+    public void opensWhenFailureRateExceedsThresholdTest() {
+        call(false);
+        call(true);
+        call(false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        call(true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void closesAfterSuccessfulHalfOpenCallsTest() {
+        openBreaker();
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onResult(false);
+        breaker.onResult(false);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void reopensWhenHalfOpenCallFailsTest() {
+        openBreaker();
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        call(true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void oldFailuresLeaveTheWindowTest() {
+        call(true);
+        for (int i = 0; i < 10; i++) {
+            call(false);
+        }
+        call(true);
+        call(true);
+        call(true);
+        call(true);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void call(boolean failed) {
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(failed);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsistentHashRingTest {
+
+    public static final int VIRTUAL_NODES = 160;
+    public static final int KEYS_COUNT = 10_000;
+
+    private final List<ServerInstance> instances = instances(4);
+    private final ConsistentHashRing ring = new ConsistentHashRing(instances, VIRTUAL_NODES);
+
+    @Test
+    public void spreadsKeysEvenlyTest() {
+        Map<ServerInstance, Integer> owned = new HashMap<>();
+        for (int i = 0; i < KEYS_COUNT; i++) {
+            owned.merge(ring.route("user:" + i, instance -> true), 1, Integer::sum);
+        }
+
+        assertEquals(instances.size(), owned.size());
+        owned.values().forEach(count -> assertTrue(count > KEYS_COUNT / instances.size() * 0.7
+                && count < KEYS_COUNT / instances.size() * 1.3, "keys: " + count));
+    }
+
+    @Test
+    public void addingInstanceMovesKeysOnlyToItTest() {
+        List<ServerInstance> grown = instances(5);
+        ConsistentHashRing before = new ConsistentHashRing(grown.subList(0, 4), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(grown, VIRTUAL_NODES);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS_COUNT; i++) {
+            String key = "user:" + i;
+            ServerInstance owner = after.route(key, instance -> true);
+            if (owner != before.route(key, instance -> true)) {
+                assertSame(grown.get(4), owner);
+                moved++;
+            }
+        }
+
+        assertTrue(moved < KEYS_COUNT * 0.3, "moved: " + moved);
+    }
+
+    @Test
+    public void skippedInstanceMovesOnlyItsKeysTest() {
+        ServerInstance removed = instances.get(1);
+
+        for (int i = 0; i < KEYS_COUNT; i++) {
+            String key = "item:" + i;
+            ServerInstance owner = ring.route(key, instance -> true);
+            ServerInstance fallback = ring.route(key, instance -> instance != removed);
+            assertNotSame(removed, fallback);
+            if (owner != removed) {
+                assertSame(owner, fallback);
+            }
+        }
+    }
+
+    @Test
+    public void returnsNullWhenNoInstanceIsEligibleTest() {
+        assertNull(ring.route("user:1", instance -> false));
+    }
+
+    private static List<ServerInstance> instances(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new ServerInstance("http://server-" + i + ":9090"))
+                .collect(Collectors.toList());
+    }
+}
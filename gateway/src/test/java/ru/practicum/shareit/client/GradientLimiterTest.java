@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GradientLimiterTest {
+
+    public static final long BASE_RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private GradientLimiter limiter;
+
+    @BeforeEach
+    public void beforeEach() {
+        UpstreamProperties.Limiter properties = new UpstreamProperties.Limiter();
+        properties.setInitialLimit(20);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(100);
+        limiter = new GradientLimiter(properties);
+    }
+
+    @Test
+    public void growsWhileLatencyIsStableTest() {
+        sample(BASE_RTT, 200);
+
+        assertEquals(100, limiter.getLimit());
+    }
+
+    @Test
+    public void shrinksWhenLatencyGrowsTest() {
+        sample(BASE_RTT, 50);
+        int stableLimit = limiter.getLimit();
+
+        sample(BASE_RTT * 10, 30);
+
+        assertTrue(limiter.getLimit() < stableLimit / 2, "limit: " + limiter.getLimit());
+    }
+
+    @Test
+    public void shrinksOnDroppedCallsTest() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(BASE_RTT, true);
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void rejectsAboveLimitTest() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertFalse(limiter.tryAcquire());
+        limiter.cancel();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    private void sample(long rtt, int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(rtt, false);
+        }
+    }
+}
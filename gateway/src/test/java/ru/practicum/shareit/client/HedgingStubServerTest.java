@@ -0,0 +1,118 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgingStubServerTest {
+
+    public static final int CALLS_COUNT = 20;
+    public static final long SLOW_MILLIS = 3000;
+
+    private final AtomicLong slowLatency = new AtomicLong();
+    private HttpServer slow;
+    private HttpServer fast;
+    private SimpleMeterRegistry meterRegistry;
+    private LoadBalancer loadBalancer;
+    private RequestHedger hedger;
+    private StubClient client;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        slow = server(slowLatency);
+        fast = server(new AtomicLong());
+        meterRegistry = new SimpleMeterRegistry();
+
+        HedgingProperties hedging = new HedgingProperties();
+        hedging.setEnabled(true);
+        hedging.setPaths(List.of("/items"));
+        hedging.setLatencyWindow(CALLS_COUNT);
+        hedging.setBudgetRatio(1);
+        hedger = new RequestHedger(hedging, meterRegistry);
+        loadBalancer = new LoadBalancer(List.of(url(slow), url(fast)), new LoadBalancerProperties(), meterRegistry);
+        ResponseCacheProperties cacheProperties = new ResponseCacheProperties();
+        cacheProperties.setEnabled(false);
+
+        RestTemplate rest = new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory("/items"))
+                .requestFactory(() -> new AbortableRequestFactory(HttpClients.createDefault()))
+                .build();
+        client = new StubClient(rest, new ResponseCache(cacheProperties, meterRegistry),
+                new SingleFlight(new SingleFlightProperties(), meterRegistry),
+                new UpstreamGuard(new UpstreamProperties(), meterRegistry), loadBalancer, hedger);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        hedger.shutdown();
+        slow.stop(0);
+        fast.stop(0);
+    }
+
+    @Test
+    public void slowInstanceIsHedgedAndAbortedTest() throws Exception {
+        for (int i = 0; i < CALLS_COUNT; i++) {
+            client.find();
+        }
+        slowLatency.set(SLOW_MILLIS);
+
+        for (int i = 0; i < CALLS_COUNT; i++) {
+            long start = System.nanoTime();
+            assertEquals(HttpStatus.OK, client.find().getStatusCode());
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < SLOW_MILLIS / 2);
+        }
+
+        assertTrue(meterRegistry.get("gateway.hedging.hedges").tag("winner", "hedge").counter().count() > 0);
+        Thread.sleep(200);
+        assertEquals(0, loadBalancer.getInstances().get(0).getOutstanding());
+        assertTrue(loadBalancer.getInstances().get(0).isAvailable(System.nanoTime()));
+    }
+
+    private static HttpServer server(AtomicLong latency) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/items", exchange -> {
+            try {
+                Thread.sleep(latency.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(HttpStatus.OK.value(), -1);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static String url(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static class StubClient extends BaseClient {
+        StubClient(RestTemplate rest, ResponseCache responseCache, SingleFlight singleFlight,
+                   UpstreamGuard upstreamGuard, LoadBalancer loadBalancer, RequestHedger hedger) {
+            super(rest, responseCache, singleFlight, upstreamGuard, loadBalancer, hedger, List.of("/items"));
+        }
+
+        ResponseEntity<Object> find() {
+            return get("/1");
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadBalancerStubServerTest {
+
+    public static final URI PATH = URI.create("/stub");
+    public static final int CALLS_COUNT = 20;
+
+    private final RestTemplate rest = new RestTemplate();
+    private final AtomicLong clock = new AtomicLong();
+    private StubServer first;
+    private StubServer second;
+    private SimpleMeterRegistry meterRegistry;
+    private LoadBalancer loadBalancer;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        first = new StubServer();
+        second = new StubServer();
+        meterRegistry = new SimpleMeterRegistry();
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.setFailureThreshold(2);
+        loadBalancer = new LoadBalancer(List.of(first.url(), second.url()), properties, meterRegistry, clock::get);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        first.stop();
+        second.stop();
+    }
+
+    @Test
+    public void spreadsCallsAcrossInstancesTest() {
+        for (int i = 0; i < CALLS_COUNT; i++) {
+            assertEquals(HttpStatus.OK, call(HttpMethod.GET).getStatusCode());
+        }
+
+        assertEquals(CALLS_COUNT, first.served.get() + second.served.get());
+        assertTrue(first.served.get() > 0);
+        assertTrue(second.served.get() > 0);
+    }
+
+    @Test
+    public void recordsUpstreamTimerByRouteTemplateTest() {
+        for (int i = 0; i < CALLS_COUNT; i++) {
+            loadBalancer.execute(HttpMethod.GET, URI.create("/stub/" + i), null,
+                    uri -> ResponseEntity.ok(rest.getForObject(uri, String.class)));
+        }
+
+        long count = meterRegistry.get("gateway.upstream.requests")
+                .tag("method", "GET")
+                .tag("uri", "/stub/{id}")
+                .tag("status", "200")
+                .timers()
+                .stream()
+                .mapToLong(Timer::count)
+                .sum();
+        assertEquals(CALLS_COUNT, count);
+    }
+
+    @Test
+    public void prefersInstanceWithFewerOutstandingRequestsTest() {
+        ServerInstance busy = loadBalancer.getInstances().get(0);
+        busy.acquire();
+
+        for (int i = 0; i < CALLS_COUNT; i++) {
+            assertNotSame(busy, loadBalancer.choose(List.of(), null));
+        }
+    }
+
+    @Test
+    public void retriesGetOnAnotherInstanceAndEjectsFailingOneTest() {
+        first.status.set(HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        for (int i = 0; i < CALLS_COUNT; i++) {
+            assertEquals(HttpStatus.OK, call(HttpMethod.GET).getStatusCode());
+        }
+
+        assertEquals(2, first.served.get());
+        assertEquals(CALLS_COUNT, second.served.get());
+        assertFalse(loadBalancer.getInstances().get(0).isAvailable(clock.get()));
+        assertEquals(2, meterRegistry.get("gateway.upstream.retries").counter().count());
+    }
+
+    @Test
+    public void retriesGetWhenInstanceIsDownTest() {
+        first.stop();
+
+        for (int i = 0; i < CALLS_COUNT; i++) {
+            assertEquals(HttpStatus.OK, call(HttpMethod.GET).getStatusCode());
+        }
+
+        assertEquals(CALLS_COUNT, second.served.get());
+    }
+
+    @Test
+    public void doesNotRetryPostTest() {
+        first.status.set(HttpStatus.SERVICE_UNAVAILABLE.value());
+        loadBalancer.getInstances().get(1).setHealthy(false);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, call(HttpMethod.POST).getStatusCode());
+        assertEquals(1, first.served.get());
+        assertEquals(0, second.served.get());
+    }
+
+    @Test
+    public void failsWhenAllInstancesAreDownTest() {
+        first.stop();
+        second.stop();
+
+        assertThrows(ResourceAccessException.class, () -> call(HttpMethod.GET));
+    }
+
+    @Test
+    public void healthCheckEjectsAndReintroducesInstanceTest() {
+        first.healthStatus.set(HttpStatus.SERVICE_UNAVAILABLE.value());
+        loadBalancer.checkHealth();
+
+        for (int i = 0; i < CALLS_COUNT; i++) {
+            call(HttpMethod.GET);
+        }
+        assertEquals(0, first.served.get());
+
+        first.healthStatus.set(HttpStatus.OK.value());
+        loadBalancer.checkHealth();
+
+        for (int i = 0; i < CALLS_COUNT; i++) {
+            call(HttpMethod.GET);
+        }
+        assertTrue(first.served.get() > 0);
+    }
+
+    @Test
+    public void ejectedInstanceReturnsAfterEjectDurationTest() {
+        ServerInstance instance = loadBalancer.getInstances().get(0);
+        instance.onFailure(clock.get(), 1, 1_000);
+        assertFalse(instance.isAvailable(clock.get()));
+
+        clock.addAndGet(1_000);
+
+        assertTrue(instance.isAvailable(clock.get()));
+    }
+
+    @Test
+    public void consistentHashKeepsUserOnOneInstanceTest() {
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.setStrategy(LoadBalancerProperties.Strategy.CONSISTENT_HASH);
+        loadBalancer = new LoadBalancer(List.of(first.url(), second.url()), properties, meterRegistry, clock::get);
+
+        for (int i = 0; i < CALLS_COUNT; i++) {
+            call(HttpMethod.GET, 42L);
+        }
+
+        assertTrue(first.served.get() == CALLS_COUNT || second.served.get() == CALLS_COUNT);
+    }
+
+    @Test
+    public void consistentHashMovesUserWhenInstanceIsDownTest() {
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.setStrategy(LoadBalancerProperties.Strategy.CONSISTENT_HASH);
+        loadBalancer = new LoadBalancer(List.of(first.url(), second.url()), properties, meterRegistry, clock::get);
+        call(HttpMethod.GET, 42L);
+        StubServer owner = first.served.get() == 1 ? first : second;
+        StubServer other = owner == first ? second : first;
+        owner.stop();
+
+        assertEquals(HttpStatus.OK, call(HttpMethod.GET, 42L).getStatusCode());
+        assertEquals(1, other.served.get());
+    }
+
+    @Test
+    public void affinityKeyTest() {
+        assertEquals("item:5", LoadBalancer.affinityKey(URI.create("/items/5/comment"), 1L));
+        assertEquals("user:7", LoadBalancer.affinityKey(URI.create("/users/7"), null));
+        assertEquals("user:3", LoadBalancer.affinityKey(URI.create("/bookings?state=ALL"), 3L));
+        assertNull(LoadBalancer.affinityKey(URI.create("/users"), null));
+    }
+
+    private ResponseEntity<Object> call(HttpMethod method) {
+        return call(method, null);
+    }
+
+    private ResponseEntity<Object> call(HttpMethod method, Long userId) {
+        return loadBalancer.execute(method, PATH, userId, uri -> {
+            try {
+                return ResponseEntity.ok(rest.exchange(uri, method, null, String.class).getBody());
+            } catch (HttpStatusCodeException e) {
+                return ResponseEntity.status(e.getStatusCode()).build();
+            }
+        });
+    }
+
+    private static class StubServer {
+        private final HttpServer server;
+        private final AtomicInteger served = new AtomicInteger();
+        private final AtomicInteger status = new AtomicInteger(HttpStatus.OK.value());
+        private final AtomicInteger healthStatus = new AtomicInteger(HttpStatus.OK.value());
+
+        StubServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/stub", exchange -> {
+                served.incrementAndGet();
+                exchange.sendResponseHeaders(status.get(), -1);
+                exchange.close();
+            });
+            server.createContext("/actuator/health", exchange -> {
+                exchange.sendResponseHeaders(healthStatus.get(), -1);
+                exchange.close();
+            });
+            server.start();
+        }
+
+        String url() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestHedgerTest {
+
+    public static final int WARM_UP_CALLS = 20;
+
+    private HedgingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private RequestHedger hedger;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void beforeEach() {
+        properties = new HedgingProperties();
+        properties.setEnabled(true);
+        properties.setLatencyWindow(WARM_UP_CALLS);
+        properties.setMinDelay(Duration.ofMillis(20));
+        properties.setBudgetRatio(1);
+        meterRegistry = new SimpleMeterRegistry();
+        hedger = new RequestHedger(properties, meterRegistry);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        release.countDown();
+        hedger.shutdown();
+    }
+
+    @Test
+    public void hedgesOnlyConfiguredPathsTest() {
+        assertTrue(hedger.isHedged(URI.create("/bookings/owner?state=ALL")));
+        assertTrue(hedger.isHedged(URI.create("/items/1")));
+        assertFalse(hedger.isHedged(URI.create("/users/1")));
+
+        properties.setEnabled(false);
+        assertFalse(new RequestHedger(properties, new SimpleMeterRegistry()).isHedged(URI.create("/items/1")));
+    }
+
+    @Test
+    public void slowPrimaryIsHedgedTest() {
+        warmUp();
+
+        long start = System.nanoTime();
+        ResponseEntity<Object> response = hedger.execute(this::slow, () -> ResponseEntity.ok("hedge"));
+
+        assertEquals("hedge", response.getBody());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+        assertEquals(1, meterRegistry.get("gateway.hedging.hedges").tag("winner", "hedge").counter().count());
+    }
+
+    @Test
+    public void fastPrimaryIsNotHedgedTest() {
+        warmUp();
+        AtomicInteger hedges = new AtomicInteger();
+
+        ResponseEntity<Object> response = hedger.execute(() -> ResponseEntity.ok("primary"), () -> {
+            hedges.incrementAndGet();
+            return ResponseEntity.ok("hedge");
+        });
+
+        assertEquals("primary", response.getBody());
+        assertEquals(0, hedges.get());
+    }
+
+    @Test
+    public void failedHedgeFallsBackToPrimaryTest() {
+        warmUp();
+
+        ResponseEntity<Object> response = hedger.execute(() -> {
+            sleep(100);
+            return ResponseEntity.ok("primary");
+        }, () -> {
+            throw new ResourceAccessException("down");
+        });
+
+        assertEquals("primary", response.getBody());
+    }
+
+    @Test
+    public void exhaustedBudgetDisablesHedgingTest() {
+        properties.setBudgetRatio(0);
+        hedger = new RequestHedger(properties, meterRegistry);
+        warmUp();
+        AtomicInteger hedges = new AtomicInteger();
+
+        ResponseEntity<Object> response = hedger.execute(() -> {
+            sleep(100);
+            return ResponseEntity.ok("primary");
+        }, () -> {
+            hedges.incrementAndGet();
+            return ResponseEntity.ok("hedge");
+        });
+
+        assertEquals("primary", response.getBody());
+        assertEquals(0, hedges.get());
+        assertEquals(1, meterRegistry.get("gateway.hedging.budget.exhausted").counter().count());
+    }
+
+    @Test
+    public void budgetLimitsHedgeRateTest() {
+        HedgeBudget budget = new HedgeBudget(0.1, 10);
+        int hedges = 0;
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+            if (budget.tryAcquire()) {
+                hedges++;
+            }
+        }
+
+        assertEquals(10, hedges);
+    }
+
+    @Test
+    public void latencyTrackerUsesPercentileTest() {
+        LatencyTracker tracker = new LatencyTracker(100, 0.95);
+        assertEquals(-1, tracker.getThreshold());
+
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+
+        assertEquals(95, tracker.getThreshold());
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            hedger.execute(() -> ResponseEntity.ok("warm"), () -> ResponseEntity.ok("warm"));
+        }
+    }
+
+    private ResponseEntity<Object> slow() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ResponseEntity.ok("primary");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.dto.CreateCommentDto;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheStubServerTest {
+
+    private final List<String> received = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger version = new AtomicInteger();
+    private final AtomicReference<CountDownLatch> gate = new AtomicReference<>();
+    private final CountDownLatch gateEntered = new CountDownLatch(1);
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private UserClient client;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            String method = exchange.getRequestMethod();
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            received.add(method + " " + exchange.getRequestURI() + (ifNoneMatch == null ? "" : " " + ifNoneMatch));
+            int current = "GET".equals(method) ? version.get() : version.incrementAndGet();
+            if ("GET".equals(method)) {
+                awaitGate();
+            }
+
+            String etag = "\"" + current + "\"";
+            exchange.getResponseHeaders().add(HttpHeaders.ETAG, etag);
+            if (etag.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(HttpStatus.NOT_MODIFIED.value(), -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = ("{\"version\":" + current + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(HttpStatus.OK.value(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        server.stop(0);
+    }
+
+    @Test
+    public void freshEntryServedUntilTtlExpiresTest() throws Exception {
+        createClient(Duration.ofMillis(200));
+
+        client.findUserById(1L);
+        ResponseEntity<Object> cached = client.findUserById(1L);
+
+        assertEquals(1, received.size());
+        assertEquals("{\"version\":0}", body(cached));
+        assertEquals(1, counter("hit"));
+
+        Thread.sleep(300);
+        ResponseEntity<Object> revalidated = client.findUserById(1L);
+
+        assertEquals(2, received.size());
+        assertEquals("GET /users/1 \"0\"", received.get(1));
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertEquals("{\"version\":0}", body(revalidated));
+        assertEquals(1, counter("revalidated"));
+    }
+
+    @Test
+    public void changedResourceIsRefetchedOnRevalidationTest() {
+        createClient(Duration.ZERO);
+
+        client.findUserById(1L);
+        version.incrementAndGet();
+        ResponseEntity<Object> response = client.findUserById(1L);
+
+        assertEquals("GET /users/1 \"0\"", received.get(1));
+        assertEquals("{\"version\":1}", body(response));
+        assertEquals(0, counter("revalidated"));
+        assertEquals(2, counter("miss"));
+    }
+
+    @Test
+    public void mutationInvalidatesCachedResponsesTest() {
+        createClient(Duration.ofMinutes(1));
+
+        client.findUserById(1L);
+        client.updateUser(1L, new UserDto(null, "update", null));
+        ResponseEntity<Object> response = client.findUserById(1L);
+
+        assertEquals(List.of("GET /users/1", "PATCH /users/1", "GET /users/1"), received);
+        assertEquals("{\"version\":1}", body(response));
+    }
+
+    @Test
+    public void listsAreNotCachedTest() {
+        createClient(Duration.ofMinutes(1));
+
+        client.findAllUsers();
+        client.findAllUsers();
+
+        assertEquals(List.of("GET /users", "GET /users"), received);
+        assertEquals(0, counter("hit"));
+    }
+
+    @Test
+    public void createUserKeepsCachedUsersTest() {
+        createClient(Duration.ofMinutes(1));
+
+        client.findUserById(1L);
+        client.createUser(new UserDto(null, "name", "user@mail.com"));
+        client.findUserById(1L);
+
+        assertEquals(List.of("GET /users/1", "POST /users"), received);
+    }
+
+    @Test
+    public void itemsAreAlwaysRevalidatedTest() {
+        ItemClient items = createItemClient();
+
+        items.findItemById(1L, 1L);
+        items.findItemById(1L, 1L);
+
+        assertEquals(List.of("GET /items/1", "GET /items/1 \"0\""), received);
+        assertEquals(1, counter("revalidated"));
+    }
+
+    @Test
+    public void commentInvalidatesOnlyCommentedItemTest() {
+        ItemClient items = createItemClient();
+
+        items.findItemById(1L, 1L);
+        items.findItemById(2L, 1L);
+        items.createComment(new CreateCommentDto("comment"), 1L, 1L);
+        items.findItemById(1L, 1L);
+        items.findItemById(2L, 1L);
+
+        assertEquals("GET /items/1", received.get(3));
+        assertTrue(received.get(4).startsWith("GET /items/2 \""), received.get(4));
+    }
+
+    @Test
+    public void disabledByDefaultTest() {
+        ResponseCache cache = new ResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry());
+
+        assertFalse(cache.isCacheable(URI.create("/users/1")));
+    }
+
+    @Test
+    public void staleFillRacingInvalidationIsNotCachedTest() throws Exception {
+        createClient(Duration.ofMinutes(1));
+        CountDownLatch release = new CountDownLatch(1);
+        gate.set(release);
+
+        CompletableFuture<ResponseEntity<Object>> staleRead = CompletableFuture.supplyAsync(
+                () -> client.findUserById(1L));
+        assertTrue(gateEntered.await(5, TimeUnit.SECONDS));
+        client.updateUser(1L, new UserDto(null, "update", null));
+        release.countDown();
+
+        assertEquals("{\"version\":0}", body(staleRead.get(5, TimeUnit.SECONDS)));
+        ResponseEntity<Object> response = client.findUserById(1L);
+
+        assertEquals(3, received.size());
+        assertEquals("GET /users/1", received.get(2));
+        assertEquals("{\"version\":1}", body(response));
+    }
+
+    private void createClient(Duration ttl) {
+        ResponseCache cache = createCache(ttl);
+        client = new UserClient(new RestTemplateBuilder(),
+                new HttpComponentsClientHttpRequestFactory(),
+                cache,
+                new SingleFlight(new SingleFlightProperties(), meterRegistry),
+                upstreamGuard(),
+                loadBalancer(),
+                new RequestHedger(new HedgingProperties(), meterRegistry));
+    }
+
+    private ItemClient createItemClient() {
+        ResponseCache cache = createCache(Duration.ofMinutes(1));
+        return new ItemClient(new RestTemplateBuilder(),
+                new HttpComponentsClientHttpRequestFactory(),
+                cache,
+                new SingleFlight(new SingleFlightProperties(), meterRegistry),
+                upstreamGuard(),
+                loadBalancer(),
+                new RequestHedger(new HedgingProperties(), meterRegistry));
+    }
+
+    private ResponseCache createCache(Duration ttl) {
+        meterRegistry = new SimpleMeterRegistry();
+        ResponseCacheProperties cacheProperties = new ResponseCacheProperties();
+        cacheProperties.setEnabled(true);
+        cacheProperties.setTtl(ttl);
+        return new ResponseCache(cacheProperties, meterRegistry);
+    }
+
+    private UpstreamGuard upstreamGuard() {
+        UpstreamProperties upstreamProperties = new UpstreamProperties();
+        upstreamProperties.getLimiter().setEnabled(false);
+        upstreamProperties.getBreaker().setEnabled(false);
+        return new UpstreamGuard(upstreamProperties, meterRegistry);
+    }
+
+    private LoadBalancer loadBalancer() {
+        return new LoadBalancer(List.of("http://localhost:" + server.getAddress().getPort()),
+                new LoadBalancerProperties(), meterRegistry);
+    }
+
+    private void awaitGate() {
+        CountDownLatch release = gate.getAndSet(null);
+        if (release == null) {
+            return;
+        }
+        gateEntered.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get(ResponseCache.METRIC_NAME).tag("result", result).counter().count();
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
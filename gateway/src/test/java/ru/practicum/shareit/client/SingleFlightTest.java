@@ -0,0 +1,119 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    public static final int WAITERS_COUNT = 16;
+    public static final String KEY = "/items/search?text=drill";
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(new SingleFlightProperties(), meterRegistry);
+        executor = Executors.newFixedThreadPool(WAITERS_COUNT);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentCallsShareOneUpstreamCallTest() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < WAITERS_COUNT; i++) {
+            results.add(executor.submit(() -> singleFlight.execute(KEY, () -> {
+                upstreamCalls.incrementAndGet();
+                await(release);
+                return "response";
+            })));
+        }
+        waitForCoalesced(WAITERS_COUNT - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("response", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    public void failureIsPropagatedToWaitersTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Object> leader = executor.submit(() -> singleFlight.execute(KEY, () -> {
+            await(release);
+            throw new IllegalStateException("upstream");
+        }));
+        waitForLeader();
+        Future<Object> waiter = executor.submit(() -> singleFlight.execute(KEY, () -> "unused"));
+        waitForCoalesced(1);
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception waiterError = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+        assertInstanceOf(IllegalStateException.class, waiterError.getCause());
+    }
+
+    @Test
+    public void completedCallIsNotReusedTest() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        singleFlight.execute(KEY, upstreamCalls::incrementAndGet);
+        singleFlight.execute(KEY, upstreamCalls::incrementAndGet);
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    public void keyIncludesUserOnlyForUserDependentPathsTest() {
+        assertEquals("/items/search?text=drill", singleFlight.key(URI.create("http://server/items/search?text=drill"), 1L));
+        assertEquals("/items/1|1", singleFlight.key(URI.create("http://server/items/1"), 1L));
+        assertNotEquals(singleFlight.key(URI.create("http://server/requests/all?from=0"), 1L),
+                singleFlight.key(URI.create("http://server/requests/all?from=0"), 2L));
+    }
+
+    private void waitForLeader() throws InterruptedException {
+        while (meterRegistry.counter(SingleFlight.METRIC_NAME, "result", "leader").count() < 1) {
+            Thread.sleep(1);
+        }
+    }
+
+    private void waitForCoalesced(int count) throws InterruptedException {
+        while (meterRegistry.counter(SingleFlight.METRIC_NAME, "result", "coalesced").count() < count) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
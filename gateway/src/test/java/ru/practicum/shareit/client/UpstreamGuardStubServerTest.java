@@ -0,0 +1,165 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.errorhandler.ServerUnavailableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpstreamGuardStubServerTest {
+
+    public static final int TIMEOUT_MILLIS = 200;
+
+    private final AtomicLong latencyMillis = new AtomicLong();
+    private final AtomicInteger served = new AtomicInteger();
+    private final AtomicInteger status = new AtomicInteger(HttpStatus.OK.value());
+    private HttpServer server;
+    private UpstreamGuard upstreamGuard;
+    private StubClient client;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/stub", exchange -> {
+            served.incrementAndGet();
+            sleep(latencyMillis.get());
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        UpstreamProperties properties = new UpstreamProperties();
+        properties.getBreaker().setMinimumCalls(3);
+        properties.getBreaker().setWindowSize(10);
+        properties.getBreaker().setOpenDuration(Duration.ofMinutes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamGuard = new UpstreamGuard(properties, meterRegistry);
+
+        ResponseCacheProperties cacheProperties = new ResponseCacheProperties();
+        cacheProperties.setEnabled(false);
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
+        requestFactory.setReadTimeout(TIMEOUT_MILLIS);
+        client = new StubClient(new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory("/stub"))
+                .requestFactory(() -> requestFactory)
+                .build(),
+                new ResponseCache(cacheProperties, meterRegistry),
+                new SingleFlight(new SingleFlightProperties(), meterRegistry),
+                upstreamGuard,
+                new LoadBalancer(List.of("http://localhost:" + server.getAddress().getPort()),
+                        new LoadBalancerProperties(), meterRegistry),
+                new RequestHedger(new HedgingProperties(), meterRegistry));
+    }
+
+    @AfterEach
+    public void afterEach() {
+        server.stop(0);
+    }
+
+    @Test
+    public void healthyServerIsProxiedTest() {
+        ResponseEntity<Object> response = client.find();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(0, meterRegistry.get("gateway.upstream.circuit.state").gauge().value());
+    }
+
+    @Test
+    public void slowServerOpensCircuitAndFailsFastTest() {
+        latencyMillis.set(TIMEOUT_MILLIS * 3);
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ResourceAccessException.class, client::find);
+        }
+        int servedBeforeOpen = served.get();
+
+        long start = System.nanoTime();
+        assertThrows(ServerUnavailableException.class, client::find);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMillis < TIMEOUT_MILLIS, "elapsed: " + elapsedMillis);
+        assertEquals(servedBeforeOpen, served.get());
+        assertEquals(1, meterRegistry.get("gateway.upstream.circuit.state").gauge().value());
+        assertEquals(1, meterRegistry.get("gateway.upstream.rejected").tag("reason", "circuit").counter().count());
+    }
+
+    @Test
+    public void applicationErrorsDoNotOpenCircuitTest() {
+        status.set(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, client.find().getStatusCode());
+        }
+
+        assertEquals(5, served.get());
+        assertEquals(0, meterRegistry.get("gateway.upstream.circuit.state").gauge().value());
+    }
+
+    @Test
+    public void unavailableResponsesOpenCircuitTest() {
+        status.set(HttpStatus.SERVICE_UNAVAILABLE.value());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, client.find().getStatusCode());
+        }
+
+        assertThrows(ServerUnavailableException.class, client::find);
+        assertEquals(3, served.get());
+        assertEquals(1, meterRegistry.get("gateway.upstream.circuit.state").gauge().value());
+    }
+
+    @Test
+    public void latencyInjectionLowersConcurrencyLimitTest() {
+        for (int i = 0; i < 20; i++) {
+            client.find();
+        }
+        double stableLimit = meterRegistry.get("gateway.upstream.limit").gauge().value();
+
+        latencyMillis.set(TIMEOUT_MILLIS / 2);
+        for (int i = 0; i < 5; i++) {
+            client.find();
+        }
+
+        assertTrue(meterRegistry.get("gateway.upstream.limit").gauge().value() < stableLimit);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class StubClient extends BaseClient {
+        StubClient(org.springframework.web.client.RestTemplate rest, ResponseCache responseCache,
+                   SingleFlight singleFlight, UpstreamGuard upstreamGuard, LoadBalancer loadBalancer,
+                   RequestHedger hedger) {
+            super(rest, responseCache, singleFlight, upstreamGuard, loadBalancer, hedger, List.of("/stub"));
+        }
+
+        ResponseEntity<Object> find() {
+            return get("");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void beforeEach() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getDefaultLimit().setRequestsPerSecond(1);
+        properties.getDefaultLimit().setBurst(100);
+        properties.getDefaultLimit().setMaxConcurrent(1);
+        RateLimitProperties.Limit search = new RateLimitProperties.Limit();
+        search.setRequestsPerSecond(1);
+        search.setBurst(2);
+        properties.getRoutes().put("/items/search", search);
+
+        filter = new RateLimitFilter(properties, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void rejectsRequestsOverRouteLimitTest() throws Exception {
+        assertEquals(HttpStatus.OK.value(), perform("/items/search", "1").getStatus());
+        assertEquals(HttpStatus.OK.value(), perform("/items/search", "1").getStatus());
+
+        MockHttpServletResponse rejected = perform("/items/search", "1");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.OK.value(), perform("/items/search", "2").getStatus());
+        assertEquals(HttpStatus.OK.value(), perform("/items/1", "1").getStatus());
+    }
+
+    @Test
+    public void rejectsConcurrentRequestsOverCapTest() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        FilterChain chain = (request, response) -> nested.set(perform("/bookings", "1"));
+
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        filter.doFilter(request("/bookings", "1"), outer, chain);
+
+        assertEquals(HttpStatus.OK.value(), outer.getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), nested.get().getStatus());
+        assertEquals(HttpStatus.OK.value(), perform("/bookings", "1").getStatus());
+    }
+
+    @Test
+    public void skipsConcurrencyCapForLoopbackBatchSubRequestsTest() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> spoofed = new AtomicReference<>();
+        FilterChain chain = (request, response) -> {
+            nested.set(perform(batchSubRequest("127.0.0.1")));
+            spoofed.set(perform(batchSubRequest("10.0.0.1")));
+        };
+
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        filter.doFilter(request("/bookings", "1"), outer, chain);
+
+        assertEquals(HttpStatus.OK.value(), outer.getStatus());
+        assertEquals(HttpStatus.OK.value(), nested.get().getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), spoofed.get().getStatus());
+    }
+
+    @Test
+    public void limitsAnonymousRequestsByAddressTest() throws Exception {
+        assertEquals(HttpStatus.OK.value(), perform(anonymous("10.0.0.1", null)).getStatus());
+        assertEquals(HttpStatus.OK.value(), perform(anonymous("10.0.0.1", null)).getStatus());
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), perform(anonymous("10.0.0.1", null)).getStatus());
+        assertEquals(HttpStatus.OK.value(), perform(anonymous("10.0.0.2", null)).getStatus());
+    }
+
+    @Test
+    public void trustsForwardedAddressOnlyFromLoopbackTest() throws Exception {
+        perform(anonymous("10.0.0.1", null));
+        perform(anonymous("10.0.0.1", null));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(),
+                perform(anonymous("127.0.0.1", "10.0.0.1")).getStatus());
+        assertEquals(HttpStatus.OK.value(), perform(anonymous("10.0.0.3", "10.0.0.1")).getStatus());
+    }
+
+    private MockHttpServletResponse perform(String path, String userId) {
+        return perform(request(path, userId));
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (userId != null) {
+            request.addHeader(USER_ID_HEADER, userId);
+        }
+        return request;
+    }
+
+    private static MockHttpServletRequest batchSubRequest(String remoteAddress) {
+        MockHttpServletRequest request = request("/bookings", "1");
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader("X-Batch-Request", "true");
+        return request;
+    }
+
+    private static MockHttpServletRequest anonymous(String remoteAddress, String forwardedFor) {
+        MockHttpServletRequest request = request("/items/search", null);
+        request.setRemoteAddr(remoteAddress);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    public static final long START = 1_000_000_000L;
+    public static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void allowsBurstThenRejectsTest() {
+        TokenBucket bucket = new TokenBucket(10, 5, START);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryConsume(START));
+        }
+        long wait = bucket.tryConsume(START);
+
+        assertTrue(wait > 0);
+        assertTrue(wait <= SECOND / 10);
+    }
+
+    @Test
+    public void refillsAtConfiguredRateTest() {
+        TokenBucket bucket = new TokenBucket(10, 1, START);
+
+        assertEquals(0, bucket.tryConsume(START));
+        assertTrue(bucket.tryConsume(START + SECOND / 20) > 0);
+        assertEquals(0, bucket.tryConsume(START + SECOND / 10));
+    }
+
+    @Test
+    public void idleTimeDoesNotAccumulateBeyondBurstTest() {
+        TokenBucket bucket = new TokenBucket(10, 2, START);
+        long later = START + 60 * SECOND;
+
+        assertEquals(0, bucket.tryConsume(later));
+        assertEquals(0, bucket.tryConsume(later));
+        assertTrue(bucket.tryConsume(later) > 0);
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDetailedDto;
 import ru.practicum.shareit.booking.dto.BookingPostDto;
@@ -18,12 +20,17 @@ public class BookingController {
     public static final String DEFAULT_SIZE_VALUE = "20";
     public static final String DEFAULT_STATE_VALUE = "ALL";
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     private BookingService bookingService;
+    private BookingIngestion bookingIngestion;
 
     @PostMapping
     public BookingPostResponseDto createBooking(@RequestBody BookingPostDto dto,
                                                 @RequestHeader(USER_ID_HEADER) Long userId) {
+        if (bookingIngestion.isEnabled()) {
+            return bookingIngestion.createBooking(dto, userId);
+        }
         return bookingService.createBooking(dto, userId);
     }
 
@@ -41,18 +48,37 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDetailedDto> findAllBookings(@RequestParam(defaultValue = DEFAULT_STATE_VALUE) String state,
-                                                    @RequestHeader(USER_ID_HEADER) Long userId,
-                                                    @RequestParam(defaultValue = DEFAULT_FROM_VALUE) int from,
-                                                    @RequestParam(defaultValue = DEFAULT_SIZE_VALUE) int size) {
-        return bookingService.findAllByBooker(state, userId, from, size);
+    public ResponseEntity<List<BookingDetailedDto>> findAllBookings(
+            @RequestParam(defaultValue = DEFAULT_STATE_VALUE) String state,
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam(defaultValue = DEFAULT_FROM_VALUE) int from,
+            @RequestParam(defaultValue = DEFAULT_SIZE_VALUE) int size,
+            @RequestParam(required = false) String after) {
+        if (after == null) {
+            return ResponseEntity.ok(bookingService.findAllByBooker(state, userId, from, size));
+        }
+        return toSliceResponse(bookingService.findAllByBookerAfter(state, userId, after, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDetailedDto> findAll(@RequestParam(defaultValue = DEFAULT_STATE_VALUE) String state,
-                                            @RequestHeader(USER_ID_HEADER) Long userId,
-                                            @RequestParam(defaultValue = DEFAULT_FROM_VALUE) int from,
-                                            @RequestParam(defaultValue = DEFAULT_SIZE_VALUE) int size) {
-        return bookingService.findAllByItemOwner(state, userId, from, size);
+    public ResponseEntity<List<BookingDetailedDto>> findAll(
+            @RequestParam(defaultValue = DEFAULT_STATE_VALUE) String state,
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam(defaultValue = DEFAULT_FROM_VALUE) int from,
+            @RequestParam(defaultValue = DEFAULT_SIZE_VALUE) int size,
+            @RequestParam(required = false) String after) {
+        if (after == null) {
+            return ResponseEntity.ok(bookingService.findAllByItemOwner(state, userId, from, size));
+        }
+        return toSliceResponse(bookingService.findAllByItemOwnerAfter(state, userId, after, size));
+    }
+
+    private ResponseEntity<List<BookingDetailedDto>> toSliceResponse(Slice<BookingDetailedDto> slice) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        List<BookingDetailedDto> content = slice.getContent();
+        if (slice.hasNext() && !content.isEmpty()) {
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.encode(content.get(content.size() - 1)));
+        }
+        return response.body(content);
     }
 }
\ No newline at end of file
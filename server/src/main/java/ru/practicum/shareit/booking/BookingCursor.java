@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingDetailedDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor
+public class BookingCursor {
+
+    public static final String INVALID_CURSOR_MESSAGE = "недопустимое значение курсора: ";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final Long id;
+
+    public static String encode(BookingDetailedDto booking) {
+        String value = booking.getStart() + SEPARATOR + booking.getEnd() + SEPARATOR + booking.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(INVALID_CURSOR_MESSAGE + cursor);
+            }
+            return new BookingCursor(LocalDateTime.parse(parts[0]), LocalDateTime.parse(parts[1]),
+                    Long.valueOf(parts[2]));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR_MESSAGE + cursor, e);
+        }
+    }
+}
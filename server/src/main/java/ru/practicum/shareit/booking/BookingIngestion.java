@@ -0,0 +1,187 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingPostDto;
+import ru.practicum.shareit.booking.dto.BookingPostResponseDto;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(BookingIngestionProperties.class)
+public class BookingIngestion {
+    public static final String METRIC_NAME = "booking.ingestion";
+    public static final String INGESTION_STOPPED_MESSAGE = "пакетная запись бронирований остановлена";
+    public static final String RESULT_TIMEOUT_MESSAGE = "не дождались результата пакетной записи бронирования: ";
+    private static final Comparator<PendingBooking> LOCK_ORDER = Comparator.comparing(
+            booking -> booking.getDto().getItemId(), Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final BookingService bookingService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long resultTimeoutNanos;
+    private final BlockingQueue<PendingBooking> queue;
+    private final DistributionSummary batchSize;
+    private final Timer flushTimer;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public BookingIngestion(BookingService bookingService, BookingIngestionProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.bookingService = bookingService;
+        this.enabled = properties.isEnabled();
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.maxDelayNanos = properties.getMaxDelay().toNanos();
+        this.resultTimeoutNanos = properties.getResultTimeout().toNanos();
+        this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSize = DistributionSummary.builder(METRIC_NAME + ".batch.size")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder(METRIC_NAME + ".flush")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".queue", queue, BlockingQueue::size)
+                .register(meterRegistry);
+
+        this.flusher = new Thread(this::run, "booking-ingestion");
+        this.flusher.setDaemon(true);
+        if (enabled) {
+            flusher.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public BookingPostResponseDto createBooking(BookingPostDto dto, Long userId) {
+        PendingBooking booking = new PendingBooking(dto, userId);
+        if (!running || !queue.offer(booking)) {
+            return bookingService.createBooking(dto, userId);
+        }
+        if (!running && queue.remove(booking)) {
+            return bookingService.createBooking(dto, userId);
+        }
+        try {
+            return booking.getResult().get(resultTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(RESULT_TIMEOUT_MESSAGE + TimeUnit.NANOSECONDS.toMillis(resultTimeoutNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(RESULT_TIMEOUT_MESSAGE + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (enabled) {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        PendingBooking left;
+        while ((left = queue.poll()) != null) {
+            createAlone(left);
+        }
+    }
+
+    private void run() {
+        List<PendingBooking> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingBooking first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    collect(batch);
+                    flush(batch);
+                } catch (InterruptedException e) {
+                    running = false;
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException | Error e) {
+                    running = false;
+                    log.error("Поток пакетной записи бронирований остановлен", e);
+                    throw e;
+                } finally {
+                    fail(batch);
+                    batch.clear();
+                }
+            }
+        } finally {
+            running = false;
+            PendingBooking left;
+            while ((left = queue.poll()) != null) {
+                left.fail(new IllegalStateException(INGESTION_STOPPED_MESSAGE));
+            }
+        }
+    }
+
+    private void fail(List<PendingBooking> batch) {
+        for (PendingBooking booking : batch) {
+            if (booking.fail(new IllegalStateException(INGESTION_STOPPED_MESSAGE))) {
+                log.warn("Бронирование не сохранено: пакетная запись прервана itemId: {}",
+                        booking.getDto().getItemId());
+            }
+        }
+    }
+
+    private void collect(List<PendingBooking> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingBooking next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingBooking> batch) {
+        batch.sort(LOCK_ORDER);
+        batchSize.record(batch.size());
+        try {
+            flushTimer.record(() -> bookingService.createBookings(batch));
+            batch.forEach(PendingBooking::complete);
+        } catch (Throwable e) {
+            log.warn("Пакет бронирований не сохранён, повтор по одному size: {}", batch.size(), e);
+            batch.forEach(this::createAlone);
+        }
+    }
+
+    private void createAlone(PendingBooking booking) {
+        booking.reset();
+        try {
+            booking.setResponse(bookingService.createBooking(booking.getDto(), booking.getUserId()));
+        } catch (RuntimeException e) {
+            booking.setError(e);
+        }
+        booking.complete();
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.booking-ingestion")
+public class BookingIngestionProperties {
+    private boolean enabled = false;
+    private int maxBatchSize = 64;
+    private Duration maxDelay = Duration.ofMillis(2);
+    private int queueCapacity = 10_000;
+    private Duration resultTimeout = Duration.ofSeconds(30);
+}
@@ -3,50 +3,88 @@ package ru.practicum.shareit.booking;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.IntervalDto;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSeekRepository {
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from bookings b " +
+            "where b.booker.id = ?1 " +
+            "and b.end < ?2")
     Page<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime now, Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from bookings b " +
+            "where b.booker.id = ?1 " +
+            "and b.start > ?2")
     Page<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime now, Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from bookings b " +
+            "where b.booker.id = ?1 " +
+            "and b.status = ?2")
     Page<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from bookings b " +
+            "where b.booker.id = ?1")
     Page<Booking> findByBookerId(Long bookerId, Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from bookings b " +
+            "where b.item.id in (select i.id from items i where i.owner.id = ?1) " +
+            "and b.status = ?2")
     Page<Booking> findBookingByItemOwnerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from bookings b " +
+            "where b.item.id in (select i.id from items i where i.owner.id = ?1) " +
+            "and b.end < ?2")
     Page<Booking> findBookingByItemOwnerIdAndEndIsBefore(Long bookerId, LocalDateTime now, Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from bookings b " +
+            "where b.item.id in (select i.id from items i where i.owner.id = ?1) " +
+            "and b.start > ?2")
     Page<Booking> findBookingByItemOwnerIdAndStartIsAfter(Long bookerId, LocalDateTime now, Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from bookings b " +
+            "where b.item.id in (select i.id from items i where i.owner.id = ?1)")
     Page<Booking> findBookingByItemOwnerId(Long bookerId, Pageable pageable);
 
     List<Booking> findBookingByItemIdAndEndBefore(Long itemId, LocalDateTime now, Sort sort);
 
     List<Booking> findBookingByItemIdAndStartAfter(Long itemId, LocalDateTime now, Sort sort);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
+    @Query("select b from bookings b " +
+            "where b.booker.id = ?1 " +
+            "and b.start < ?2 " +
+            "and b.end > ?3 " +
+            "order by b.start asc")
     Page<Booking> findByBookerIdAndStartLessThanAndEndGreaterThanOrderByStartAsc(Long userId, LocalDateTime start,
                                                                                  LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS_GRAPH)
     @Query("select b from bookings b " +
-            "where b.item.owner.id = ?1 " +
+            "where b.item.id in (select i.id from items i where i.owner.id = ?1) " +
             "and b.start < ?2 " +
             "and b.end > ?2 " +
             "order by b.start asc")
     Page<Booking> findBookingsByItemOwnerIdCurrent(Long userId, LocalDateTime now, Pageable pageable);
 
-    @Query("select b from bookings b " +
-            " where b.item.id = ?1 " +
-            " and b.booker.id = ?2" +
-            " and b.end < ?3")
-    List<Booking> findBookingsForAddComments(Long itemId, Long userId, LocalDateTime now);
+    boolean existsByItemIdAndBookerIdAndEndBefore(Long itemId, Long userId, LocalDateTime now);
 
     List<Booking> findLastBookingsByItemIdAndEndIsBeforeAndStatusIs(
             Long itemId, LocalDateTime end, BookingStatus status, Sort sort);
@@ -54,27 +92,45 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findNextBookingsByItemIdAndEndIsAfterAndStatusIs(
             Long itemId, LocalDateTime end, BookingStatus status, Sort sort);
 
-    @Query(nativeQuery = true, value = "SELECT b.id, b.start_time, b.end_time, b.item_id, b.booker_id, b.status " +
-            "FROM bookings b " +
-            "WHERE b.item_id IN (:itemIds)  " +
-            "  AND b.end_time < :date OR (b.start_time < :date AND b.end_time > :date) " +
-            "  AND b.status = :status " +
-            "GROUP BY b.id, b.start_time, b.end_time, b.item_id, b.booker_id, b.status " +
-            "HAVING b.end_time = MIN(b.end_time) " +
-            "ORDER BY b.end_time")
-    List<Booking> findLastByItemIds(@Param("itemIds") List<Long> itemIds,
-                                    @Param("date") LocalDateTime date,
-                                    @Param("status") String status);
-
-    @Query(nativeQuery = true, value = "SELECT b.id, b.start_time, b.end_time, b.item_id, b.booker_id, b.status " +
-            "FROM bookings b " +
-            "WHERE b.item_id IN (:itemIds)  " +
-            "  AND b.start_time > :date " +
-            "  AND b.status = :status " +
-            "GROUP BY b.id, b.start_time, b.end_time, b.item_id, b.booker_id, b.status " +
-            "HAVING b.end_time = MIN(b.end_time) " +
-            "ORDER BY b.end_time")
-    List<Booking> findNextByItemIds(@Param("itemIds") List<Long> itemIds,
-                                    @Param("date") LocalDateTime date,
-                                    @Param("status") String status);
-}
\ No newline at end of file
+    @Query(nativeQuery = true, value = "SELECT t.id FROM (" +
+            "  SELECT (SELECT l.id FROM bookings l " +
+            "          WHERE l.item_id = i.id AND l.status = :status AND l.start_time <= :now " +
+            "          ORDER BY l.start_time DESC, l.id DESC LIMIT 1) AS id " +
+            "  FROM items i WHERE i.id IN (:itemIds) " +
+            "  UNION ALL " +
+            "  SELECT (SELECT n.id FROM bookings n " +
+            "          WHERE n.item_id = i.id AND n.status = :status AND n.start_time > :now " +
+            "          ORDER BY n.start_time ASC, n.id DESC LIMIT 1) AS id " +
+            "  FROM items i WHERE i.id IN (:itemIds)" +
+            ") t WHERE t.id IS NOT NULL")
+    List<Long> findLastAndNextIdsByItemIds(@Param("itemIds") List<Long> itemIds,
+                                           @Param("now") LocalDateTime now,
+                                           @Param("status") String status);
+
+    @Query("select b from bookings b " +
+            "join fetch b.booker " +
+            "where b.id in ?1")
+    List<Booking> findAllWithBookerByIdIn(Collection<Long> ids);
+
+    default List<Booking> findLastAndNextByItemIds(List<Long> itemIds, LocalDateTime now, BookingStatus status) {
+        List<Long> ids = findLastAndNextIdsByItemIds(itemIds, now, status.name());
+        return ids.isEmpty() ? List.of() : findAllWithBookerByIdIn(ids);
+    }
+
+    @Query("select new ru.practicum.shareit.item.dto.IntervalDto(b.start, b.end) from bookings b " +
+            "where b.item.id = ?1 " +
+            "and b.status = ?2 " +
+            "and b.end > ?3 " +
+            "and b.start < ?4 " +
+            "order by b.start asc")
+    List<IntervalDto> findIntervalsOverlapping(Long itemId, BookingStatus status,
+                                               LocalDateTime start, LocalDateTime end);
+
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                              LocalDateTime end, LocalDateTime start);
+
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(Long itemId, BookingStatus status,
+                                                                    LocalDateTime end, LocalDateTime start,
+                                                                    Long bookingId);
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.State;
+
+import java.time.LocalDateTime;
+
+public interface BookingSeekRepository {
+
+    Slice<Booking> findByBookerIdAfter(Long bookerId, State state, LocalDateTime now, BookingCursor after, int size);
+
+    Slice<Booking> findByItemOwnerIdAfter(Long ownerId, State state, LocalDateTime now, BookingCursor after,
+                                          int size);
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.item.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingSeekRepositoryImpl implements BookingSeekRepository {
+
+    private static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public Slice<Booking> findByBookerIdAfter(Long bookerId, State state, LocalDateTime now, BookingCursor after,
+                                              int size) {
+        return findAfter((root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId),
+                state, now, after, size);
+    }
+
+    @Override
+    public Slice<Booking> findByItemOwnerIdAfter(Long ownerId, State state, LocalDateTime now, BookingCursor after,
+                                                 int size) {
+        return findAfter((root, query, cb) -> {
+            Subquery<Long> ownerItems = query.subquery(Long.class);
+            Root<Item> item = ownerItems.from(Item.class);
+            ownerItems.select(item.get("id")).where(cb.equal(item.get("owner").get("id"), ownerId));
+            return root.get("item").get("id").in(ownerItems);
+        }, state, now, after, size);
+    }
+
+    private Slice<Booking> findAfter(Specification<Booking> user, State state, LocalDateTime now,
+                                     BookingCursor after, int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        Path<LocalDateTime> start = root.get("start");
+        Path<LocalDateTime> end = root.get("end");
+        Path<Long> id = root.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(user.toPredicate(root, query, cb));
+        switch (state) {
+            case REJECTED:
+                predicates.add(cb.equal(root.get("status"), BookingStatus.REJECTED));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(root.get("status"), BookingStatus.WAITING));
+                break;
+            case CURRENT:
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, now));
+                break;
+            default:
+                break;
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, after.getStart()),
+                    cb.and(cb.equal(start, after.getStart()), cb.lessThan(end, after.getEnd())),
+                    cb.and(cb.equal(start, after.getStart()), cb.equal(end, after.getEnd()),
+                            cb.lessThan(id, after.getId()))));
+        }
+        query.select(root)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(end), cb.desc(id));
+
+        List<Booking> bookings = em.createQuery(query)
+                .setHint(FETCH_GRAPH_HINT, em.getEntityGraph(Booking.DETAILS_GRAPH))
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = bookings.size() > size;
+        if (hasNext) {
+            bookings = bookings.subList(0, size);
+        }
+        return new SliceImpl<>(bookings, PageRequest.of(0, size), hasNext);
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.booking.dto.BookingDetailedDto;
 import ru.practicum.shareit.booking.dto.BookingPostDto;
 import ru.practicum.shareit.booking.dto.BookingPostResponseDto;
@@ -11,6 +12,8 @@ public interface BookingService {
 
     BookingPostResponseDto createBooking(BookingPostDto dto, Long userId);
 
+    void createBookings(List<PendingBooking> bookings);
+
     BookingResponseDto patchBooking(Long bookingId, Boolean approved, Long userId);
 
     BookingDetailedDto findById(Long bookingId, Long userId);
@@ -18,4 +21,8 @@ public interface BookingService {
     List<BookingDetailedDto> findAllByBooker(String state, Long userId, int from, int size);
 
     List<BookingDetailedDto> findAllByItemOwner(String state, Long userId, int from, int size);
+
+    Slice<BookingDetailedDto> findAllByBookerAfter(String state, Long userId, String after, int size);
+
+    Slice<BookingDetailedDto> findAllByItemOwnerAfter(String state, Long userId, String after, int size);
 }
\ No newline at end of file
@@ -1,25 +1,32 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.*;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.InvalidBookingException;
 import ru.practicum.shareit.exception.UnavailableBookingException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemCalendarCache;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 
+import static ru.practicum.shareit.booking.BookingStatus.APPROVED;
 import static ru.practicum.shareit.booking.BookingStatus.REJECTED;
 import static ru.practicum.shareit.booking.BookingStatus.WAITING;
 
@@ -35,21 +42,47 @@ public class BookingServiceImpl implements BookingService {
     public static final String UNAVAILABLE_BOOKING_MESSAGE = "в данный момент невозможно забронировать item: ";
     public static final String DENIED_PATCH_ACCESS_MESSAGE = "пользователь не является владельцем вещи userId: ";
     public static final String DENIED_ACCESS_MESSAGE = "пользователь не является владельцем вещи или брони userId: ";
+    public static final String BOOKING_CONFLICT_MESSAGE = "вещь уже забронирована на это время itemId: ";
+    public static final String USER_NOT_FOUND_MESSAGE = "пользователь не найден userId: ";
+    public static final String CURSOR_SIZE_MESSAGE = "недопустимый размер страницы курсора size: ";
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(WAITING, APPROVED);
 
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final ItemCalendarCache calendarCache;
 
     @Override
     @Transactional
     public BookingPostResponseDto createBooking(BookingPostDto dto, Long userId) {
+        return create(dto, userId, new ArrayList<>());
+    }
+
+    @Override
+    @Transactional
+    public void createBookings(List<PendingBooking> bookings) {
+        List<Booking> created = new ArrayList<>(bookings.size());
+        for (PendingBooking booking : bookings) {
+            try {
+                booking.setResponse(create(booking.getDto(), booking.getUserId(), created));
+            } catch (RuntimeException e) {
+                booking.setError(e);
+            }
+        }
+    }
+
+    private BookingPostResponseDto create(BookingPostDto dto, Long userId, List<Booking> created) {
         if (!isStartBeforeEnd(dto)) {
             throw new IllegalArgumentException(BOOKING_INVALID_MESSAGE +
                     "start: " + dto.getStart() + " end: " + dto.getEnd() + " now: ");
         }
 
-        User user = userRepository.findById(userId).orElseThrow();
-        Item item = itemRepository.findById(dto.getItemId()).orElseThrow();
+        if (!hasBooker(created, userId)) {
+            checkIfUserExists(userId);
+        }
+        User user = userRepository.getReferenceById(userId);
+        Item item = itemRepository.findByIdForUpdate(dto.getItemId()).orElseThrow();
 
         if (Objects.equals(userId, item.getOwner().getId())) {
             throw new InvalidBookingException(INVALID_BOOKING);
@@ -59,8 +92,18 @@ public class BookingServiceImpl implements BookingService {
             throw new UnavailableBookingException(UNAVAILABLE_BOOKING_MESSAGE + item.getId());
         }
 
+        boolean conflict = overlaps(created, item.getId(), dto)
+                || bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                        item.getId(), ACTIVE_STATUSES, dto.getEnd(), dto.getStart());
+        if (conflict) {
+            throw new BookingConflictException(BOOKING_CONFLICT_MESSAGE + item.getId() +
+                    " start: " + dto.getStart() + " end: " + dto.getEnd());
+        }
+
         Booking booking = BookingMapper.toModel(dto, item, user);
         booking = bookingRepository.save(booking);
+        created.add(booking);
+        calendarCache.invalidate(item.getId());
         return BookingMapper.toPostResponseDto(booking, item);
     }
 
@@ -68,7 +111,7 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     public BookingResponseDto patchBooking(Long bookingId, Boolean approved, Long userId) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow();
-        Item item = itemRepository.findById(booking.getItem().getId()).orElseThrow();
+        Item item = itemRepository.findByIdForUpdate(booking.getItem().getId()).orElseThrow();
 
         if (!Objects.equals(item.getOwner().getId(), userId)) {
             throw new NoSuchElementException(DENIED_PATCH_ACCESS_MESSAGE + userId + " itemId: " + item.getId());
@@ -79,8 +122,24 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException(STATE_ALREADY_SET_MESSAGE + status);
         }
 
+        if (status == APPROVED && bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+                item.getId(), APPROVED, booking.getEnd(), booking.getStart(), booking.getId())) {
+            throw new BookingConflictException(BOOKING_CONFLICT_MESSAGE + item.getId() +
+                    " bookingId: " + booking.getId());
+        }
+
         booking.setStatus(status);
         booking = bookingRepository.save(booking);
+        try {
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                throw new BookingConflictException(BOOKING_CONFLICT_MESSAGE + item.getId() +
+                        " bookingId: " + booking.getId());
+            }
+            throw e;
+        }
+        calendarCache.invalidate(item.getId());
         return BookingMapper.toResponseDto(booking, UserMapper.toDto(booking.getBooker()), item);
     }
 
@@ -174,8 +233,50 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    public Slice<BookingDetailedDto> findAllByBookerAfter(String stateValue, Long userId, String after, int size) {
+        State state = State.parseState(stateValue);
+        checkCursorSize(size);
+        checkIfUserExists(userId);
+
+        return bookingRepository
+                .findByBookerIdAfter(userId, state, LocalDateTime.now(), BookingCursor.decode(after), size)
+                .map(BookingMapper::toDetailedDto);
+    }
+
+    @Override
+    public Slice<BookingDetailedDto> findAllByItemOwnerAfter(String stateValue, Long userId, String after, int size) {
+        State state = State.parseState(stateValue);
+        checkCursorSize(size);
+        checkIfUserExists(userId);
+
+        return bookingRepository
+                .findByItemOwnerIdAfter(userId, state, LocalDateTime.now(), BookingCursor.decode(after), size)
+                .map(BookingMapper::toDetailedDto);
+    }
+
     private void checkIfUserExists(Long userId) {
-        userRepository.findById(userId).orElseThrow();
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException(USER_NOT_FOUND_MESSAGE + userId);
+        }
+    }
+
+    private void checkCursorSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException(CURSOR_SIZE_MESSAGE + size);
+        }
+    }
+
+    private boolean hasBooker(List<Booking> bookings, Long userId) {
+        return bookings.stream()
+                .anyMatch(booking -> booking.getBooker().getId().equals(userId));
+    }
+
+    private boolean overlaps(List<Booking> bookings, Long itemId, BookingPostDto dto) {
+        return bookings.stream()
+                .anyMatch(booking -> booking.getItem().getId().equals(itemId)
+                        && booking.getStart().isBefore(dto.getEnd())
+                        && booking.getEnd().isAfter(dto.getStart()));
     }
 
     private boolean isStartBeforeEnd(BookingPostDto dto) {
@@ -185,4 +286,14 @@ public class BookingServiceImpl implements BookingService {
     private BookingStatus convertToStatus(Boolean approved) {
         return approved ? BookingStatus.APPROVED : REJECTED;
     }
-}
\ No newline at end of file
+
+    private static boolean isExclusionViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException
+                    && EXCLUSION_VIOLATION_SQL_STATE.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
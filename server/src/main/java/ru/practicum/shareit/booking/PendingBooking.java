@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.booking.dto.BookingPostDto;
+import ru.practicum.shareit.booking.dto.BookingPostResponseDto;
+
+import java.util.concurrent.CompletableFuture;
+
+@Getter
+@Setter
+@RequiredArgsConstructor
+public class PendingBooking {
+    private final BookingPostDto dto;
+    private final Long userId;
+    private final CompletableFuture<BookingPostResponseDto> result = new CompletableFuture<>();
+    private BookingPostResponseDto response;
+    private RuntimeException error;
+
+    public void complete() {
+        if (error != null) {
+            result.completeExceptionally(error);
+        } else {
+            result.complete(response);
+        }
+    }
+
+    public boolean fail(Throwable cause) {
+        return result.completeExceptionally(cause);
+    }
+
+    public void reset() {
+        response = null;
+        error = null;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Component
+public class EtagFilter extends ShallowEtagHeaderFilter {
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+@Component
+public class UserHeaderTagsContributor implements WebMvcTagsContributor {
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final Tag USER_PRESENT = Tag.of("user", "present");
+    private static final Tag USER_ABSENT = Tag.of("user", "absent");
+
+    @Override
+    public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                 Throwable exception) {
+        return Tags.of(request.getHeader(USER_ID_HEADER) == null ? USER_ABSENT : USER_PRESENT);
+    }
+
+    @Override
+    public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+        return Tags.empty();
+    }
+}
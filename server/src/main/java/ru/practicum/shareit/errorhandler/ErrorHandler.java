@@ -50,6 +50,13 @@ public class ErrorHandler {
         return new ErrorResponse("Ошибка бронирования 400: ", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handle(BookingConflictException e) {
+        log.warn("Пересечение бронирований", e);
+        return new ErrorResponse("Пересечение бронирований 409: ", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handle(IllegalArgumentException e) {
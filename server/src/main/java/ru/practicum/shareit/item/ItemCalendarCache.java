@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.IntervalDto;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@Component
+@EnableConfigurationProperties(ItemCalendarProperties.class)
+public class ItemCalendarCache {
+    public static final String METRIC_NAME = "item.calendar";
+
+    private final boolean enabled;
+    private final Duration horizon;
+    private final Cache<Long, CalendarWindow> cache;
+
+    public ItemCalendarCache(ItemCalendarProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.horizon = properties.getHorizon();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, METRIC_NAME);
+    }
+
+    public List<IntervalDto> get(Long itemId, LocalDateTime start, LocalDateTime end,
+                                 BiFunction<LocalDateTime, LocalDateTime, List<IntervalDto>> loader) {
+        LocalDateTime horizonStart = LocalDate.now().atStartOfDay();
+        LocalDateTime horizonEnd = horizonStart.plus(horizon);
+        if (!enabled || start.isBefore(horizonStart) || end.isAfter(horizonEnd)) {
+            return loader.apply(start, end);
+        }
+        Function<Long, CalendarWindow> windowLoader =
+                id -> new CalendarWindow(horizonStart, horizonEnd, loader.apply(horizonStart, horizonEnd));
+        CalendarWindow window = cache.get(itemId, windowLoader);
+        if (!window.covers(start, end)) {
+            cache.invalidate(itemId);
+            window = cache.get(itemId, windowLoader);
+        }
+        return window.getIntervals();
+    }
+
+    public void invalidate(Long itemId) {
+        cache.invalidate(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(itemId);
+                }
+            });
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class CalendarWindow {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final List<IntervalDto> intervals;
+
+        boolean covers(LocalDateTime from, LocalDateTime to) {
+            return !from.isBefore(start) && !to.isAfter(end);
+        }
+    }
+}
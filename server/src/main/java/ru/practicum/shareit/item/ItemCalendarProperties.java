@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.item-calendar")
+public class ItemCalendarProperties {
+    private boolean enabled = true;
+    private long maximumSize = 10_000;
+    private Duration ttl = Duration.ofSeconds(30);
+    private Duration horizon = Duration.ofDays(90);
+}
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.DetailedCommentDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -43,6 +47,13 @@ public class ItemController {
         return itemService.findItemById(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/calendar")
+    public ItemCalendarDto findCalendar(@PathVariable Long itemId,
+                                        @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime start,
+                                        @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime end) {
+        return itemService.findCalendar(itemId, start, end);
+    }
+
     @GetMapping
     public List<ItemDto> findAllItems(@RequestHeader(USER_ID_HEADER) Long userId,
                                       @RequestParam(defaultValue = "0") int from,
@@ -53,8 +64,12 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDto> findItemsByRequest(@RequestParam String text,
                                             @RequestHeader(USER_ID_HEADER) Long userId,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime start,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime end,
                                             @RequestParam(defaultValue = "0") int from,
                                             @RequestParam(defaultValue = "20") int size) {
-        return itemService.findItemsByRequest(text, userId, from, size);
+        return itemService.findItemsByRequest(text, userId, start, end, from, size);
     }
 }
\ No newline at end of file
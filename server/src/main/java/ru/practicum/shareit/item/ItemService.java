@@ -2,8 +2,10 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.DetailedCommentDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -17,5 +19,8 @@ public interface ItemService {
 
     List<ItemDto> findAllItems(Long userId, int from, int size);
 
-    List<ItemDto> findItemsByRequest(String text, Long userId, int from, int size);
+    ItemCalendarDto findCalendar(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    List<ItemDto> findItemsByRequest(String text, Long userId, LocalDateTime start, LocalDateTime end,
+                                     int from, int size);
 }
\ No newline at end of file
@@ -14,7 +14,10 @@ import ru.practicum.shareit.exception.DeniedAccessException;
 import ru.practicum.shareit.exception.OwnerNotFoundException;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.DetailedCommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CalendarMapper;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.CommentRepository;
@@ -25,8 +28,10 @@ import ru.practicum.shareit.user.UserRepository;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,15 +39,20 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
+    public static final String SEARCH_INTERVAL_INVALID_MESSAGE = "недопустимый интервал поиска: ";
+    public static final String CALENDAR_INTERVAL_INVALID_MESSAGE = "недопустимый интервал календаря: ";
+    public static final String ITEM_NOT_FOUND_MESSAGE = "вещь не найдена itemId: ";
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemCalendarCache calendarCache;
 
     @Override
     @Transactional
     public ItemDto createItem(ItemDto itemDto, Long userId) {
-        User user = findUserById(userId);
+        User user = findUserReference(userId);
         Item item = ItemMapper.toModel(itemDto, user);
 
         item = itemRepository.save(item);
@@ -53,14 +63,16 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public DetailedCommentDto createComment(CreateCommentDto dto, Long itemId, Long userId) {
         if (dto.getText().isBlank()) throw new CommentException("Комментарий не может быть пустым");
-        Item item = itemRepository.findById(itemId).orElseThrow();
+        if (!itemRepository.existsById(itemId)) {
+            throw new NoSuchElementException(ITEM_NOT_FOUND_MESSAGE + itemId);
+        }
         User author = userRepository.findById(userId).orElseThrow();
 
-        if (bookingRepository.findBookingsForAddComments(itemId, userId, LocalDateTime.now()).isEmpty()) {
+        if (!bookingRepository.existsByItemIdAndBookerIdAndEndBefore(itemId, userId, LocalDateTime.now())) {
             throw new CommentException("Нельзя оставить комментарий на вещь, " +
                     "который вы не пользовались или ещё не закончился срок аренды" + " itemId: " + itemId);
         }
-        Comment comment = CommentMapper.toModel(dto, item, author);
+        Comment comment = CommentMapper.toModel(dto, itemRepository.getReferenceById(itemId), author);
         comment = commentRepository.save(comment);
         return CommentMapper.toCommentDetailedDto(comment);
     }
@@ -68,7 +80,7 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public ItemDto updateItem(ItemDto itemDto, Long itemId, Long userId) {
-        User user = findUserById(userId);
+        User user = findUserReference(userId);
         Item item = ItemMapper.toModel(itemDto, user);
         item.setId(itemId);
         List<Comment> comments = commentRepository.findByItemId(itemId);
@@ -79,69 +91,76 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public ItemDto findItemById(Long itemId, Long userId) {
         Item item = itemRepository.findById(itemId).orElseThrow();
-        List<Comment> comments = commentRepository.findByItemId(itemId);
 
         if (item.getOwner().getId().equals(userId)) {
             return getItemsWithBookingsAndComments(List.of(item), List.of(item.getId())).get(0);
         }
+        List<Comment> comments = commentRepository.findByItemId(itemId);
         return ItemMapper.toDto(item, null, null, comments == null ? List.of() : comments);
     }
 
+    @Override
+    public ItemCalendarDto findCalendar(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException(CALENDAR_INTERVAL_INVALID_MESSAGE + "start: " + start + " end: " + end);
+        }
+        itemRepository.findById(itemId).orElseThrow();
+
+        List<IntervalDto> busy = calendarCache.get(itemId, start, end, (from, to) -> CalendarMapper.mergeIntervals(
+                bookingRepository.findIntervalsOverlapping(itemId, BookingStatus.APPROVED, from, to)));
+        return CalendarMapper.toCalendarDto(itemId, busy, start, end);
+    }
+
     @Override
     public List<ItemDto> findAllItems(Long userId, int from, int size) {
         Pageable pageable = PageRequest.of(from / size, size);
         Page<Item> itemPage = itemRepository.findByOwnerId(userId, pageable);
         List<Item> userItems = itemPage.getContent();
-
-        List<Long> itemIds = itemRepository.findAllByOwnerId(userId)
-                .stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
+        List<Long> itemIds = userItems.stream().map(Item::getId).collect(Collectors.toList());
 
         return getItemsWithBookingsAndComments(userItems, itemIds);
-
     }
 
     @Override
-    public List<ItemDto> findItemsByRequest(String text, Long userId, int from, int size) {
+    public List<ItemDto> findItemsByRequest(String text, Long userId, LocalDateTime start, LocalDateTime end,
+                                            int from, int size) {
+        if ((start == null) != (end == null) || start != null && !start.isBefore(end)) {
+            throw new IllegalArgumentException(SEARCH_INTERVAL_INVALID_MESSAGE + "start: " + start + " end: " + end);
+        }
         if (text == null || text.isBlank() || text.length() <= 3) {
             return Collections.emptyList();
         }
         Pageable pageable = PageRequest.of(from / size, size);
-        List<Item> foundItems = itemRepository.search(text, pageable).toList();
+        List<Item> foundItems = start == null
+                ? itemRepository.search(text, pageable)
+                : itemRepository.searchFree(text, start, end, BookingStatus.APPROVED, pageable);
         List<Long> itemIds = foundItems.stream().map(Item::getId).collect(Collectors.toList());
 
         return getItemsWithBookingsAndComments(foundItems, itemIds);
     }
 
     private List<ItemDto> getItemsWithBookingsAndComments(List<Item> foundItems, List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
         Map<Long, List<Comment>> comments = commentRepository.findAllByItemIdIn(itemIds)
                 .stream()
                 .collect(Collectors.groupingBy(b -> b.getItem().getId()));
-        List<Booking> all = bookingRepository.findAll();
-        Map<Long, List<Booking>> lastByItemIds = bookingRepository.findLastByItemIds(itemIds,
-                        LocalDateTime.now(),
-                        BookingStatus.APPROVED.name())
-                .stream()
-                .sorted((o1, o2) -> o2.getEnd().compareTo(o1.getEnd()))
-                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
-
-        Map<Long, List<Booking>> nextByItemIds = bookingRepository.findNextByItemIds(itemIds,
-                        LocalDateTime.now(),
-                        BookingStatus.APPROVED.name())
-                .stream()
-                .sorted((o1, o2) -> o1.getStart().compareTo(o2.getStart()))
-                .collect(Collectors.groupingBy(b -> b.getItem().getId()));
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastByItemIds = new HashMap<>();
+        Map<Long, Booking> nextByItemIds = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextByItemIds(itemIds, now, BookingStatus.APPROVED)) {
+            Map<Long, Booking> target = booking.getStart().isAfter(now) ? nextByItemIds : lastByItemIds;
+            target.put(booking.getItem().getId(), booking);
+        }
 
         return foundItems.stream()
                 .map(item -> {
-                            List<Booking> lastBookings = lastByItemIds.get(item.getId());
-                            List<Booking> nextBookings = nextByItemIds.get(item.getId());
                             List<Comment> commentsItem = comments.get(item.getId());
 
                             return ItemMapper.toDto(item,
-                                    lastBookings == null ? null : lastBookings.get(0),
-                                    nextBookings == null ? null : nextBookings.get(0),
+                                    lastByItemIds.get(item.getId()),
+                                    nextByItemIds.get(item.getId()),
                                     commentsItem == null ? List.of() : commentsItem);
                         }
                 )
@@ -149,17 +168,19 @@ public class ItemServiceImpl implements ItemService {
                 .collect(Collectors.toList());
     }
 
-    private User findUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new OwnerNotFoundException(String.format("Не найден владелец c id: %s", userId)));
+    private User findUserReference(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new OwnerNotFoundException(String.format("Не найден владелец c id: %s", userId));
+        }
+        return userRepository.getReferenceById(userId);
     }
 
     private Item refreshItem(Item patch) {
         Item entry = itemRepository.findById(patch.getId()).orElseThrow();
 
-        if (!entry.getOwner().equals(patch.getOwner())) {
+        if (!entry.getOwner().getId().equals(patch.getOwner().getId())) {
             throw new DeniedAccessException("Пользователь не является владельцем вещи" +
-                    "userId: " + patch.getOwner() + ", itemId: " + patch.getId());
+                    "userId: " + patch.getOwner().getId() + ", itemId: " + patch.getId());
         }
 
         String name = patch.getName();
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemCalendarDto {
+    private Long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private List<IntervalDto> busy;
+    private List<IntervalDto> free;
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item.mapper;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CalendarMapper {
+    public static List<IntervalDto> mergeIntervals(List<IntervalDto> sortedByStart) {
+        List<IntervalDto> merged = new ArrayList<>();
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        for (IntervalDto interval : sortedByStart) {
+            if (end != null && !interval.getStart().isAfter(end)) {
+                if (interval.getEnd().isAfter(end)) {
+                    end = interval.getEnd();
+                }
+                continue;
+            }
+            if (end != null) {
+                merged.add(new IntervalDto(start, end));
+            }
+            start = interval.getStart();
+            end = interval.getEnd();
+        }
+        if (end != null) {
+            merged.add(new IntervalDto(start, end));
+        }
+        return Collections.unmodifiableList(merged);
+    }
+
+    public static ItemCalendarDto toCalendarDto(Long itemId, List<IntervalDto> merged,
+                                                LocalDateTime start, LocalDateTime end) {
+        List<IntervalDto> busy = new ArrayList<>();
+        List<IntervalDto> free = new ArrayList<>();
+        LocalDateTime cursor = start;
+        for (int i = firstEndingAfter(merged, start); i < merged.size(); i++) {
+            IntervalDto interval = merged.get(i);
+            if (!interval.getStart().isBefore(end)) {
+                break;
+            }
+            LocalDateTime busyStart = interval.getStart().isAfter(start) ? interval.getStart() : start;
+            LocalDateTime busyEnd = interval.getEnd().isBefore(end) ? interval.getEnd() : end;
+            if (busyStart.isAfter(cursor)) {
+                free.add(new IntervalDto(cursor, busyStart));
+            }
+            busy.add(new IntervalDto(busyStart, busyEnd));
+            cursor = busyEnd;
+        }
+        if (cursor.isBefore(end)) {
+            free.add(new IntervalDto(cursor, end));
+        }
+        return new ItemCalendarDto(itemId, start, end, busy, free);
+    }
+
+    private static int firstEndingAfter(List<IntervalDto> merged, LocalDateTime moment) {
+        int low = 0;
+        int high = merged.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (merged.get(middle).getEnd().isAfter(moment)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
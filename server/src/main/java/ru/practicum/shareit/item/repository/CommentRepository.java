@@ -1,12 +1,20 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = {"author"})
+    @Query("select c from comments c " +
+            "where c.item.id = ?1")
     List<Comment> findByItemId(Long itemId);
 
+    @EntityGraph(attributePaths = {"author"})
+    @Query("select c from comments c " +
+            "where c.item.id in ?1")
     List<Comment> findAllByItemIdIn(List<Long> itemIds);
 }
\ No newline at end of file
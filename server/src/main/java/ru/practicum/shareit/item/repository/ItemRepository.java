@@ -2,21 +2,53 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.item.Item;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @EntityGraph(attributePaths = {"owner", "request.requestor"})
     @Query(" select i from items i " +
-            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%')) and i.available = true")
-    Page<Item> search(String text, Pageable pageable);
+            "where i.available = true " +
+            " and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            " or upper(i.description) like upper(concat('%', ?1, '%')))")
+    List<Item> search(String text, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"owner", "request.requestor"})
+    @Query(" select i from items i " +
+            "where i.available = true " +
+            " and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            " or upper(i.description) like upper(concat('%', ?1, '%')))" +
+            " and not exists (select b.id from bookings b " +
+            "                 where b.item = i and b.status = ?4 " +
+            "                 and b.end > ?2 and b.start < ?3)")
+    List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                          Pageable pageable);
 
     List<Item> findAllByOwnerId(Long ownerId);
 
+    @EntityGraph(attributePaths = {"owner", "request.requestor"})
+    @Query("select i from items i " +
+            "where i.owner.id = ?1")
     Page<Item> findByOwnerId(Long userId, Pageable pageable);
 
-    List<Item> findAllByRequestId(Long requestId);
-}
\ No newline at end of file
+    @Query("select i from items i " +
+            "join fetch i.owner " +
+            "join fetch i.request " +
+            "where i.request.id in ?1")
+    List<Item> findAllByRequestIdIn(List<Long> requestIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from items i " +
+            "join fetch i.owner " +
+            "where i.id = ?1")
+    Optional<Item> findByIdForUpdate(Long itemId);
+}
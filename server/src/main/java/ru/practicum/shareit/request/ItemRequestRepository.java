@@ -1,6 +1,5 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -9,8 +8,11 @@ import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<Request, Long> {
 
+    @Query("select r from requests r " +
+            "where r.requestor.id = ?1 " +
+            "order by r.created desc")
     List<Request> findRequestByRequestorIdOrderByCreatedDesc(Long requestor);
 
-    @Query("select r from requests r where r.requestor.id <> ?1")
-    Page<Request> findAll(Long userId, Pageable pageable);
+    @Query("select r from requests r join fetch r.requestor where r.requestor.id <> ?1")
+    List<Request> findAll(Long userId, Pageable pageable);
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -14,13 +13,18 @@ import ru.practicum.shareit.request.dto.PostResponseRequestDto;
 import ru.practicum.shareit.request.dto.RequestWithItemsDto;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
 
+    public static final String USER_NOT_FOUND_MESSAGE = "пользователь не найден userId: ";
     public static final Sort SORT = Sort.by("created").descending();
 
     private final UserRepository userRepository;
@@ -31,7 +35,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional
     public PostResponseRequestDto createRequest(PostRequestDto dto, Long userId) {
         checkIfUserExists(userId);
-        Request request = RequestMapper.toModel(dto, userId);
+        Request request = RequestMapper.toModel(dto, userRepository.getReferenceById(userId));
         request = requestRepository.save(request);
         return RequestMapper.toPostResponseDto(request);
     }
@@ -40,26 +44,38 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public List<RequestWithItemsDto> findAllByUserId(Long userId) {
         checkIfUserExists(userId);
         List<Request> requests = requestRepository.findRequestByRequestorIdOrderByCreatedDesc(userId);
-        return RequestMapper.toRequestWithItemsDtoList(requests, itemRepository);
+        return RequestMapper.toRequestWithItemsDtoList(requests, findItemsByRequests(requests));
     }
 
     @Override
     public List<RequestWithItemsDto> findAll(int from, int size, Long userId) {
         checkIfUserExists(userId);
         Pageable pageable = PageRequest.of(from / size, size, SORT);
-        Page<Request> requests = requestRepository.findAll(userId, pageable);
-        return RequestMapper.toRequestWithItemsDtoList(requests, itemRepository);
+        List<Request> requests = requestRepository.findAll(userId, pageable);
+        return RequestMapper.toRequestWithItemsDtoList(requests, findItemsByRequests(requests));
     }
 
     @Override
     public RequestWithItemsDto findById(Long requestId, Long userId) {
         checkIfUserExists(userId);
         Request request = requestRepository.findById(requestId).orElseThrow();
-        List<Item> items = itemRepository.findAllByRequestId(requestId);
+        List<Item> items = itemRepository.findAllByRequestIdIn(List.of(requestId));
         return RequestMapper.toRequestWithItemsDto(request, items);
     }
 
+    private Map<Long, List<Item>> findItemsByRequests(List<Request> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> requestIds = requests.stream().map(Request::getId).collect(Collectors.toList());
+        return itemRepository.findAllByRequestIdIn(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+    }
+
     private void checkIfUserExists(Long userId) {
-        userRepository.findById(userId).orElseThrow();
+        if (!userRepository.existsById(userId)) {
+            throw new NoSuchElementException(USER_NOT_FOUND_MESSAGE + userId);
+        }
     }
 }
\ No newline at end of file
@@ -2,11 +2,9 @@ package ru.practicum.shareit.request;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.springframework.data.domain.Page;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.dto.ItemInRequestDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
-import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.PostRequestDto;
 import ru.practicum.shareit.request.dto.PostResponseRequestDto;
 import ru.practicum.shareit.request.dto.RequestWithItemsDto;
@@ -14,16 +12,17 @@ import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class RequestMapper {
 
-    public static Request toModel(PostRequestDto dto, Long requestorId) {
+    public static Request toModel(PostRequestDto dto, User requestor) {
         Request request = new Request();
         request.setDescription(dto.getDescription());
-        request.setRequestor(User.builder().id(requestorId).build());
+        request.setRequestor(requestor);
         request.setCreated(LocalDateTime.now());
         return request;
     }
@@ -46,23 +45,13 @@ public class RequestMapper {
         return dto;
     }
 
-    public static List<RequestWithItemsDto> toRequestWithItemsDtoList(Page<Request> requests,
-                                                                      ItemRepository repository) {
-        return requests.stream()
-                .map((Request request) -> {
-                    List<Item> items = repository.findAllByRequestId(request.getId());
-                    return RequestMapper.toRequestWithItemsDto(request, items);
-                }).collect(Collectors.toList());
-    }
-
     public static List<RequestWithItemsDto> toRequestWithItemsDtoList(List<Request> requests,
-                                                                      ItemRepository repository) {
+                                                                      Map<Long, List<Item>> itemsByRequestId) {
         List<RequestWithItemsDto> result = new ArrayList<>();
         if (requests != null && !requests.isEmpty()) {
             for (Request request : requests) {
-                List<Item> items = repository.findAllByRequestId(request.getId());
-                RequestWithItemsDto requestDto = RequestMapper.toRequestWithItemsDto(request, items);
-                result.add(requestDto);
+                List<Item> items = itemsByRequestId.getOrDefault(request.getId(), Collections.emptyList());
+                result.add(RequestMapper.toRequestWithItemsDto(request, items));
             }
         }
         return result;
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_time, start_time);
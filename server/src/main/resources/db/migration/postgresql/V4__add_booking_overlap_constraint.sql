@@ -0,0 +1,27 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO
+$$
+    DECLARE
+        conflicts TEXT;
+    BEGIN
+        SELECT string_agg(format('item %s: %s/%s', b.item_id, o.id, b.id), ', ' ORDER BY b.item_id, o.id, b.id)
+        INTO conflicts
+        FROM bookings b
+                 JOIN bookings o ON o.item_id = b.item_id
+            AND o.status = 'APPROVED'
+            AND o.id < b.id
+            AND tsrange(o.start_time, o.end_time) && tsrange(b.start_time, b.end_time)
+        WHERE b.status = 'APPROVED';
+
+        IF conflicts IS NOT NULL THEN
+            RAISE EXCEPTION 'approved bookings overlap, bookings_approved_no_overlap cannot be added: %', conflicts
+                USING HINT = 'Reject or reschedule one booking of each pair, then rerun the migration.';
+        END IF;
+    END
+$$;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT bookings_approved_no_overlap
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_time, end_time) WITH &&)
+        WHERE (status = 'APPROVED');
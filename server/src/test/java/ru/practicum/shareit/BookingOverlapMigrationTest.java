@@ -0,0 +1,55 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers(disabledWithoutDocker = true)
+public class BookingOverlapMigrationTest {
+
+    public static final String VERSION_BEFORE_CONSTRAINT = "3";
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13.7-alpine");
+
+    @Test
+    public void overlappingApprovedBookingsStopMigrationTest() {
+        flyway(VERSION_BEFORE_CONSTRAINT).migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.com')");
+        jdbcTemplate.update("insert into items (id, name, description, available, owner_id) " +
+                "values (1, 'item', 'description', true, 1)");
+        String insertBooking = "insert into bookings (id, start_time, end_time, item_id, booker_id, status) " +
+                "values (?, ?, ?, 1, 1, 'APPROVED')";
+        jdbcTemplate.update(insertBooking, 1, start, start.plusDays(2));
+        jdbcTemplate.update(insertBooking, 2, start.plusDays(1), start.plusDays(3));
+        jdbcTemplate.update(insertBooking, 3, start.plusDays(5), start.plusDays(6));
+
+        FlywayException e = assertThrows(FlywayException.class, () -> flyway(null).migrate());
+
+        assertTrue(e.getMessage().contains("item 1: 1/2"), e.getMessage());
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "select count(*) from bookings where status = 'APPROVED'", Integer.class));
+    }
+
+    private static Flyway flyway(String target) {
+        return Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .target(target == null ? "latest" : target)
+                .load();
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "ru.practicum.shareit.RecordingStatementInspector")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SchemaIndexTest {
+
+    public static final String TABLE_SCAN = "tableScan";
+    public static final Long ID = 1L;
+    public static final PageRequest PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "start"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository requestRepository;
+
+    @Test
+    public void migrationIndexesExistTest() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select lower(index_name) from information_schema.indexes", String.class);
+
+        assertTrue(indexes.containsAll(List.of(
+                "idx_bookings_booker_start",
+                "idx_bookings_booker_status_start",
+                "idx_bookings_item_status_start",
+                "idx_bookings_item_booker_end",
+                "idx_bookings_item_status_end",
+                "idx_items_owner",
+                "idx_items_request",
+                "idx_comments_item",
+                "idx_requests_requestor_created")), indexes.toString());
+    }
+
+    @Test
+    public void findByBookerIdAfterUsesIndexTest() {
+        assertUsesIndex(() -> bookingRepository.findByBookerIdAfter(ID, State.ALL, LocalDateTime.now(), null, 20));
+    }
+
+    @Test
+    public void findByBookerIdAndEndIsBeforeUsesIndexTest() {
+        assertUsesIndex(() -> bookingRepository.findByBookerIdAndEndIsBefore(ID, LocalDateTime.now(), PAGE));
+    }
+
+    @Test
+    public void findByBookerIdAndStatusUsesIndexTest() {
+        assertUsesIndex(() -> bookingRepository.findByBookerIdAndStatus(ID, BookingStatus.WAITING, PAGE));
+    }
+
+    @Test
+    public void findByItemOwnerIdAfterUsesIndexTest() {
+        assertUsesIndex(() -> bookingRepository.findByItemOwnerIdAfter(ID, State.ALL, LocalDateTime.now(), null, 20));
+    }
+
+    @Test
+    public void findBookingByItemOwnerIdAndStatusUsesIndexTest() {
+        assertUsesIndex(() -> bookingRepository.findBookingByItemOwnerIdAndStatus(ID, BookingStatus.WAITING, PAGE));
+    }
+
+    @Test
+    public void findBookingsByItemOwnerIdCurrentUsesIndexTest() {
+        assertUsesIndex(() -> bookingRepository.findBookingsByItemOwnerIdCurrent(ID, LocalDateTime.now(),
+                PageRequest.of(0, 20)));
+    }
+
+    @Test
+    public void findCurrentByBookerIdUsesIndexTest() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertUsesIndex(() -> bookingRepository.findByBookerIdAndStartLessThanAndEndGreaterThanOrderByStartAsc(ID,
+                now, now, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    public void findLastAndNextByItemIdsUsesIndexTest() {
+        assertUsesIndex(() -> bookingRepository.findLastAndNextByItemIds(List.of(ID, ID + 1),
+                LocalDateTime.now(), BookingStatus.APPROVED));
+    }
+
+    @Test
+    public void findIntervalsOverlappingUsesIndexTest() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertUsesIndex(() -> bookingRepository.findIntervalsOverlapping(ID, BookingStatus.APPROVED,
+                now, now.plusDays(1)));
+    }
+
+    @Test
+    public void existsFinishedBookingUsesIndexTest() {
+        assertUsesIndex(() -> bookingRepository.existsByItemIdAndBookerIdAndEndBefore(ID, ID + 1,
+                LocalDateTime.now()));
+    }
+
+    @Test
+    public void existsOverlappingBookingUsesIndexTest() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertUsesIndex(() -> bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(ID,
+                List.of(BookingStatus.APPROVED), now.plusDays(1), now));
+    }
+
+    @Test
+    public void findByOwnerIdUsesIndexTest() {
+        assertUsesIndex(() -> itemRepository.findByOwnerId(ID, PageRequest.of(0, 20)));
+    }
+
+    @Test
+    public void findAllByRequestIdInUsesIndexTest() {
+        assertUsesIndex(() -> itemRepository.findAllByRequestIdIn(List.of(ID, ID + 1)));
+    }
+
+    @Test
+    public void findAllCommentsByItemIdInUsesIndexTest() {
+        assertUsesIndex(() -> commentRepository.findAllByItemIdIn(List.of(ID, ID + 1)));
+    }
+
+    @Test
+    public void findCommentsByItemIdUsesIndexTest() {
+        assertUsesIndex(() -> commentRepository.findByItemId(ID));
+    }
+
+    @Test
+    public void findRequestByRequestorIdUsesIndexTest() {
+        assertUsesIndex(() -> requestRepository.findRequestByRequestorIdOrderByCreatedDesc(ID));
+    }
+
+    private void assertUsesIndex(Runnable repositoryCall) {
+        RecordingStatementInspector.clear();
+
+        repositoryCall.run();
+
+        List<String> queries = RecordingStatementInspector.statements().stream()
+                .filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+                .collect(Collectors.toList());
+        assertFalse(queries.isEmpty(), "no queries were captured");
+        for (String query : queries) {
+            Object[] parameters = new Object[(int) query.chars().filter(c -> c == '?').count()];
+            String plan = jdbcTemplate.queryForObject("explain " + query, String.class, parameters);
+
+            assertFalse(plan == null || plan.contains(TABLE_SCAN), query + "\n" + plan);
+        }
+    }
+}
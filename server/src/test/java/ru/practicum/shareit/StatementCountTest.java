@@ -0,0 +1,267 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.PendingBooking;
+import ru.practicum.shareit.booking.dto.BookingPostDto;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CreateCommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.Request;
+import ru.practicum.shareit.request.dto.PostRequestDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class StatementCountTest {
+
+    public static final int BOOKINGS_COUNT = 10;
+    public static final int FROM_VALUE = 0;
+    public static final int SIZE_VALUE = 20;
+    public static final int PENDING_BOOKINGS_COUNT = 20;
+    public static final int BATCH_USERS_COUNT = 120;
+    public static final int JDBC_BATCH_SIZE = 50;
+
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository requestRepository;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService requestService;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Request request;
+    private Booking booking;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void beforeEach() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = persist(new User(null, "owner", "owner@count.com"));
+            booker = persist(new User(null, "booker", "booker@count.com"));
+            request = persist(new Request(null, "request", booker, now));
+            item = persist(new Item(null, "item", "description", true, owner, request));
+            for (int i = 0; i < BOOKINGS_COUNT; i++) {
+                User commentator = persist(new User(null, "user" + i, "user" + i + "@count.com"));
+                booking = persist(new Booking(null, now.minusDays(i + 2), now.minusDays(i + 1),
+                        item, commentator, BookingStatus.APPROVED));
+                persist(new Comment(null, "comment" + i, item, commentator, now));
+            }
+        });
+
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void createBookingTest() {
+        BookingPostDto dto = new BookingPostDto(null, item.getId(),
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+
+        assertStatements(5, () -> bookingService.createBooking(dto, booker.getId()));
+    }
+
+    @Test
+    public void patchBookingTest() {
+        Booking waiting = transactionTemplate.execute(status -> persist(new Booking(null,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                em.merge(item), em.merge(booker), BookingStatus.WAITING)));
+
+        assertStatements(4, () -> bookingService.patchBooking(waiting.getId(), true, owner.getId()));
+    }
+
+    @Test
+    public void createBookingsBatchesInsertsTest() {
+        List<PendingBooking> bookings = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < PENDING_BOOKINGS_COUNT; i++) {
+            bookings.add(new PendingBooking(new BookingPostDto(null, item.getId(),
+                    start.plusDays(i), start.plusDays(i).plusHours(1)), booker.getId()));
+        }
+
+        assertStatements(2 * PENDING_BOOKINGS_COUNT + 4, () -> bookingService.createBookings(bookings));
+        assertTrue(bookings.stream().allMatch(booking -> booking.getError() == null));
+    }
+
+    @Test
+    public void persistUsersBatchesInsertsTest() {
+        emf.getCache().evictAll();
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < BATCH_USERS_COUNT; i++) {
+                persist(new User(null, "batch" + i, "batch" + i + "@count.com"));
+            }
+        });
+
+        long batches = (BATCH_USERS_COUNT + JDBC_BATCH_SIZE - 1) / JDBC_BATCH_SIZE;
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 2 * batches + 1, "expected at most " + (2 * batches + 1) +
+                " statements, but was " + statements);
+    }
+
+    @Test
+    public void findAllByBookerAfterTest() {
+        assertStatements(2, () -> bookingService.findAllByBookerAfter("ALL", booking.getBooker().getId(),
+                null, SIZE_VALUE));
+    }
+
+    @Test
+    public void findAllByItemOwnerAfterTest() {
+        assertStatements(2, () -> bookingService.findAllByItemOwnerAfter("ALL", owner.getId(), null, SIZE_VALUE));
+    }
+
+    @Test
+    public void findBookingByIdTest() {
+        assertStatements(2, () -> bookingService.findById(booking.getId(), owner.getId()));
+    }
+
+    @Test
+    public void findAllByBookerTest() {
+        assertStatements(2, () -> bookingService.findAllByBooker("ALL", booking.getBooker().getId(),
+                FROM_VALUE, SIZE_VALUE));
+    }
+
+    @Test
+    public void findAllByItemOwnerTest() {
+        assertStatements(2, () -> bookingService.findAllByItemOwner("ALL", owner.getId(), FROM_VALUE, SIZE_VALUE));
+    }
+
+    @Test
+    public void createItemTest() {
+        ItemDto dto = new ItemDto(null, "new", "new description", true, null, null, null, null);
+
+        assertStatements(2, () -> itemService.createItem(dto, owner.getId()));
+    }
+
+    @Test
+    public void updateItemTest() {
+        ItemDto dto = new ItemDto(null, "updated", null, null, null, null, null, null);
+
+        assertStatements(4, () -> itemService.updateItem(dto, item.getId(), owner.getId()));
+    }
+
+    @Test
+    public void createCommentTest() {
+        CreateCommentDto dto = new CreateCommentDto("comment");
+
+        assertStatements(4, () -> itemService.createComment(dto, item.getId(), booking.getBooker().getId()));
+    }
+
+    @Test
+    public void findCalendarTest() {
+        LocalDateTime start = LocalDateTime.now().minusDays(BOOKINGS_COUNT + 1);
+
+        assertStatements(2, () -> itemService.findCalendar(item.getId(), start, start.plusDays(BOOKINGS_COUNT)));
+    }
+
+    @Test
+    public void findItemByIdForOwnerTest() {
+        assertStatements(4, () -> itemService.findItemById(item.getId(), owner.getId()));
+    }
+
+    @Test
+    public void findItemByIdForUserTest() {
+        assertStatements(2, () -> itemService.findItemById(item.getId(), booker.getId()));
+    }
+
+    @Test
+    public void findAllItemsTest() {
+        assertStatements(4, () -> itemService.findAllItems(owner.getId(), FROM_VALUE, SIZE_VALUE));
+    }
+
+    @Test
+    public void findItemsByRequestTest() {
+        assertStatements(4, () -> itemService.findItemsByRequest("description", booker.getId(),
+                null, null, FROM_VALUE, SIZE_VALUE));
+    }
+
+    @Test
+    public void findFreeItemsByRequestTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertStatements(4, () -> itemService.findItemsByRequest("description", booker.getId(),
+                start, start.plusDays(2), FROM_VALUE, SIZE_VALUE));
+    }
+
+    @Test
+    public void createRequestTest() {
+        PostRequestDto dto = new PostRequestDto("new request");
+
+        assertStatements(2, () -> requestService.createRequest(dto, owner.getId()));
+    }
+
+    @Test
+    public void findOwnRequestsTest() {
+        assertStatements(3, () -> requestService.findAllByUserId(booker.getId()));
+    }
+
+    @Test
+    public void findAllRequestsTest() {
+        assertStatements(3, () -> requestService.findAll(FROM_VALUE, SIZE_VALUE, owner.getId()));
+    }
+
+    @Test
+    public void findRequestByIdTest() {
+        assertStatements(3, () -> requestService.findById(request.getId(), owner.getId()));
+    }
+
+    private <T> T persist(T entity) {
+        em.persist(entity);
+        return entity;
+    }
+
+    private void assertStatements(long expected, Runnable endpoint) {
+        emf.getCache().evictAll();
+        statistics.clear();
+
+        endpoint.run();
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= expected, "expected at most " + expected + " statements, but was " + statements);
+    }
+}
@@ -0,0 +1,204 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingPostDto;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConcurrencyTest {
+
+    public static final int THREADS_COUNT = 16;
+    public static final int ITEMS_COUNT = 4;
+    public static final int ATTEMPTS_COUNT = 400;
+    public static final int BOOKERS_COUNT = 8;
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    private ExecutorService executor;
+    private User owner;
+    private List<User> bookers;
+    private List<Item> items;
+
+    @BeforeEach
+    public void beforeEach() {
+        executor = Executors.newFixedThreadPool(THREADS_COUNT);
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = persist(new User(null, "owner", "owner@concurrency.com"));
+            bookers = new ArrayList<>();
+            for (int i = 0; i < BOOKERS_COUNT; i++) {
+                bookers.add(persist(new User(null, "booker" + i, "booker" + i + "@concurrency.com")));
+            }
+            items = new ArrayList<>();
+            for (int i = 0; i < ITEMS_COUNT; i++) {
+                items.add(persist(new Item(null, "item" + i, "description", true, owner, null)));
+            }
+        });
+    }
+
+    @AfterEach
+    public void afterEach() {
+        executor.shutdownNow();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void concurrentBookingsNeverOverlapTest() throws Exception {
+        Random random = new Random(42);
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS_COUNT; i++) {
+            Item item = items.get(random.nextInt(ITEMS_COUNT));
+            User booker = bookers.get(random.nextInt(BOOKERS_COUNT));
+            LocalDateTime start = base.plusHours(random.nextInt(200));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(12));
+            attempts.add(() -> tryBook(item, booker, start, end));
+        }
+
+        long created = runConcurrently(attempts).stream().filter(Boolean::booleanValue).count();
+
+        assertTrue(created > 0);
+        assertNoOverlaps(List.of(BookingStatus.WAITING, BookingStatus.APPROVED));
+    }
+
+    @Test
+    public void sameSlotIsBookedOnceTest() throws Exception {
+        Item item = items.get(0);
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS_COUNT * 2; i++) {
+            User booker = bookers.get(i % BOOKERS_COUNT);
+            LocalDateTime start = base.plusMinutes(i);
+            attempts.add(() -> tryBook(item, booker, start, base.plusHours(3)));
+        }
+
+        long created = runConcurrently(attempts).stream().filter(Boolean::booleanValue).count();
+
+        assertEquals(1, created);
+    }
+
+    @Test
+    public void concurrentApprovalsNeverOverlapTest() throws Exception {
+        Item item = items.get(0);
+        List<Booking> waiting = transactionTemplate.execute(status -> {
+            List<Booking> bookings = new ArrayList<>();
+            for (int i = 0; i < THREADS_COUNT; i++) {
+                bookings.add(persist(new Booking(null, base.plusMinutes(i), base.plusHours(2),
+                        em.merge(item), em.merge(bookers.get(i % BOOKERS_COUNT)), BookingStatus.WAITING)));
+            }
+            return bookings;
+        });
+
+        List<Callable<Boolean>> approvals = waiting.stream()
+                .map(booking -> (Callable<Boolean>) () -> {
+                    try {
+                        bookingService.patchBooking(booking.getId(), true, owner.getId());
+                        return true;
+                    } catch (BookingConflictException e) {
+                        return false;
+                    }
+                })
+                .collect(Collectors.toList());
+
+        long approved = runConcurrently(approvals).stream().filter(Boolean::booleanValue).count();
+
+        assertEquals(1, approved);
+        assertNoOverlaps(List.of(BookingStatus.APPROVED));
+    }
+
+    @Test
+    public void differentItemsDoNotConflictTest() throws Exception {
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (Item item : items) {
+            User booker = bookers.get(0);
+            attempts.add(() -> tryBook(item, booker, base, base.plusHours(3)));
+        }
+
+        List<Boolean> results = runConcurrently(attempts);
+
+        assertTrue(results.stream().allMatch(Boolean::booleanValue));
+    }
+
+    private boolean tryBook(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        try {
+            bookingService.createBooking(new BookingPostDto(null, item.getId(), start, end), booker.getId());
+            return true;
+        } catch (BookingConflictException e) {
+            return false;
+        }
+    }
+
+    private List<Boolean> runConcurrently(List<Callable<Boolean>> tasks) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (Callable<Boolean> task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+
+        List<Boolean> results = new ArrayList<>();
+        for (Future<Boolean> future : futures) {
+            results.add(future.get(60, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private void assertNoOverlaps(List<BookingStatus> statuses) {
+        Map<Long, List<Booking>> byItem = bookingRepository.findAll().stream()
+                .filter(booking -> statuses.contains(booking.getStatus()))
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+
+        for (List<Booking> bookings : byItem.values()) {
+            for (int i = 0; i < bookings.size(); i++) {
+                for (int j = i + 1; j < bookings.size(); j++) {
+                    Booking a = bookings.get(i);
+                    Booking b = bookings.get(j);
+                    assertFalse(a.getStart().isBefore(b.getEnd()) && b.getStart().isBefore(a.getEnd()),
+                            "bookings " + a.getId() + " and " + b.getId() + " overlap");
+                }
+            }
+        }
+    }
+
+    private <T> T persist(T entity) {
+        em.persist(entity);
+        return entity;
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDetailedDto;
@@ -19,6 +21,7 @@ import ru.practicum.shareit.user.UserDto;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import static org.hamcrest.Matchers.is;
@@ -37,6 +40,8 @@ public class BookingControllerTest {
     public static final String SIZE_PARAM = "size";
     public static final String STATE_VALUE = "ALL";
     public static final String STATE_PARAM = "state";
+    public static final String AFTER_PARAM = "after";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     public static final String APPROVED_VALUE = "true";
     public static final String APPROVED_PARAM = "approved";
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
@@ -46,6 +51,9 @@ public class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingIngestion bookingIngestion;
+
     @Autowired
     private ObjectMapper mapper;
 
@@ -74,6 +82,29 @@ public class BookingControllerTest {
                 .createBooking(any(BookingPostDto.class), any(Long.class));
     }
 
+    @Test
+    public void createBookingThroughIngestionTest() throws Exception {
+        BookingPostDto inputDto = generateInputDto();
+        BookingPostResponseDto responseDto = generatePostResponseDto(ID, inputDto);
+
+        when(bookingIngestion.isEnabled())
+                .thenReturn(true);
+        when(bookingIngestion.createBooking(any(BookingPostDto.class), any(Long.class)))
+                .thenReturn(responseDto);
+
+        mvc.perform(post("/bookings")
+                        .content(mapper.writeValueAsString(inputDto))
+                        .header(USER_ID_HEADER, ID)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(responseDto.getId()), Long.class));
+
+        verify(bookingService, never())
+                .createBooking(any(BookingPostDto.class), any(Long.class));
+    }
+
     @Test
     public void createBookingStatusNotFoundUserDoesNotExistTest() throws Exception {
         BookingPostDto inputDto = generateInputDto();
@@ -161,6 +192,68 @@ public class BookingControllerTest {
                 .findAllByItemOwner(any(String.class), any(Long.class), any(Integer.class), any(Integer.class));
     }
 
+    @Test
+    public void findAllBookingsAfterCursorTest() throws Exception {
+        BookingDetailedDto responseDto = generateDetailedDto(ID);
+
+        when(bookingService.findAllByBookerAfter(any(String.class), any(Long.class), any(String.class), any(Integer.class)))
+                .thenReturn(new SliceImpl<>(List.of(responseDto), PageRequest.of(0, 1), true));
+
+        mvc.perform(get("/bookings")
+                        .header(USER_ID_HEADER, ID)
+                        .param(AFTER_PARAM, "")
+                        .param(SIZE_PARAM, "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER, BookingCursor.encode(responseDto)))
+                .andExpect(jsonPath("$[0].id", is(responseDto.getId()), Long.class));
+
+        verify(bookingService, never())
+                .findAllByBooker(any(String.class), any(Long.class), any(Integer.class), any(Integer.class));
+    }
+
+    @Test
+    public void findAllAfterLastCursorTest() throws Exception {
+        when(bookingService
+                .findAllByItemOwnerAfter(any(String.class), any(Long.class), any(String.class), any(Integer.class)))
+                .thenReturn(new SliceImpl<>(new ArrayList<>()));
+
+        mvc.perform(get("/bookings/owner")
+                        .header(USER_ID_HEADER, ID)
+                        .param(AFTER_PARAM, BookingCursor.encode(generateDetailedDto(ID)))
+                        .param(SIZE_PARAM, SIZE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER))
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    public void findAllAfterCursorWithEmptySliceTest() throws Exception {
+        when(bookingService
+                .findAllByItemOwnerAfter(any(String.class), any(Long.class), any(String.class), any(Integer.class)))
+                .thenReturn(new SliceImpl<>(new ArrayList<>(), PageRequest.of(0, 1), true));
+
+        mvc.perform(get("/bookings/owner")
+                        .header(USER_ID_HEADER, ID)
+                        .param(AFTER_PARAM, "")
+                        .param(SIZE_PARAM, "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER))
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    public void findAllAfterCursorWithZeroSizeTest() throws Exception {
+        when(bookingService
+                .findAllByItemOwnerAfter(any(String.class), any(Long.class), any(String.class), any(Integer.class)))
+                .thenThrow(new IllegalArgumentException(BookingServiceImpl.CURSOR_SIZE_MESSAGE + 0));
+
+        mvc.perform(get("/bookings/owner")
+                        .header(USER_ID_HEADER, ID)
+                        .param(AFTER_PARAM, "")
+                        .param(SIZE_PARAM, "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     private BookingPostDto generateInputDto() {
         BookingPostDto dto = new BookingPostDto();
         dto.setId(ID);
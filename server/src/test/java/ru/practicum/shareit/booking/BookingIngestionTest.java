@@ -0,0 +1,162 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingPostDto;
+import ru.practicum.shareit.booking.dto.BookingPostResponseDto;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.InvalidBookingException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "shareit.booking-ingestion.enabled=true",
+                "shareit.booking-ingestion.max-delay=20ms"
+        })
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingIngestionTest {
+
+    public static final int THREADS_COUNT = 16;
+
+    private final EntityManager em;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingIngestion bookingIngestion;
+    private final MeterRegistry meterRegistry;
+
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    private ExecutorService executor;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    public void beforeEach() {
+        executor = Executors.newFixedThreadPool(THREADS_COUNT);
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = new User(null, "owner", "owner@ingestion.com");
+            booker = new User(null, "booker", "booker@ingestion.com");
+            item = new Item(null, "item", "description", true, owner, null);
+            em.persist(owner);
+            em.persist(booker);
+            em.persist(item);
+        });
+    }
+
+    @AfterEach
+    public void afterEach() {
+        executor.shutdownNow();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void concurrentBookingsAreBatchedTest() throws Exception {
+        DistributionSummary batchSize = meterRegistry.get(BookingIngestion.METRIC_NAME + ".batch.size").summary();
+        long batchesBefore = batchSize.count();
+        List<Callable<BookingPostResponseDto>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS_COUNT; i++) {
+            LocalDateTime start = base.plusHours(i);
+            calls.add(() -> bookingIngestion.createBooking(
+                    new BookingPostDto(null, item.getId(), start, start.plusMinutes(30)), booker.getId()));
+        }
+
+        List<Future<BookingPostResponseDto>> results = runConcurrently(calls);
+
+        for (int i = 0; i < THREADS_COUNT; i++) {
+            BookingPostResponseDto result = results.get(i).get(30, TimeUnit.SECONDS);
+            assertNotNull(result.getId());
+            assertEquals(base.plusHours(i), result.getStart());
+        }
+        assertEquals(THREADS_COUNT, bookingRepository.count());
+        assertTrue(batchSize.count() - batchesBefore < THREADS_COUNT);
+    }
+
+    @Test
+    public void everyCallerReceivesOwnErrorTest() throws Exception {
+        List<Callable<BookingPostResponseDto>> calls = new ArrayList<>();
+        calls.add(() -> bookingIngestion.createBooking(
+                new BookingPostDto(null, item.getId(), base, base.plusHours(2)), booker.getId()));
+        calls.add(() -> bookingIngestion.createBooking(
+                new BookingPostDto(null, item.getId(), base.plusDays(1), base.plusDays(2)), owner.getId()));
+        calls.add(() -> bookingIngestion.createBooking(
+                new BookingPostDto(null, item.getId(), base.plusDays(3), base.plusDays(4)), booker.getId()));
+
+        List<Future<BookingPostResponseDto>> results = runConcurrently(calls);
+
+        assertNotNull(results.get(0).get(30, TimeUnit.SECONDS).getId());
+        assertNotNull(results.get(2).get(30, TimeUnit.SECONDS).getId());
+        Exception e = assertThrows(Exception.class, () -> results.get(1).get(30, TimeUnit.SECONDS));
+        assertInstanceOf(InvalidBookingException.class, e.getCause());
+        assertEquals(2, bookingRepository.count());
+
+        assertThrows(BookingConflictException.class, () -> bookingIngestion.createBooking(
+                new BookingPostDto(null, item.getId(), base.plusHours(1), base.plusHours(3)), booker.getId()));
+    }
+
+    @Test
+    public void flusherFailureReleasesCallersTest() throws Exception {
+        BookingService failingService = mock(BookingService.class);
+        doThrow(new StackOverflowError()).when(failingService).createBookings(anyList());
+        BookingPostDto dto = new BookingPostDto(null, item.getId(), base, base.plusHours(1));
+        BookingPostResponseDto direct = new BookingPostResponseDto();
+        when(failingService.createBooking(dto, booker.getId()))
+                .thenThrow(new StackOverflowError())
+                .thenReturn(direct);
+        BookingIngestionProperties properties = new BookingIngestionProperties();
+        properties.setEnabled(true);
+        properties.setResultTimeout(Duration.ofSeconds(5));
+        BookingIngestion failing = new BookingIngestion(failingService, properties, new SimpleMeterRegistry());
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> failing.createBooking(dto, booker.getId()));
+        assertEquals(BookingIngestion.INGESTION_STOPPED_MESSAGE, e.getMessage());
+        assertSame(direct, failing.createBooking(dto, booker.getId()));
+        failing.shutdown();
+    }
+
+    private List<Future<BookingPostResponseDto>> runConcurrently(List<Callable<BookingPostResponseDto>> calls) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BookingPostResponseDto>> futures = new ArrayList<>();
+        for (Callable<BookingPostResponseDto> call : calls) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return call.call();
+            }));
+        }
+        start.countDown();
+        return futures;
+    }
+}
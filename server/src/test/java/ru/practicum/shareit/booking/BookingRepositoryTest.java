@@ -7,13 +7,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.State;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.IntervalDto;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,7 +44,7 @@ public class BookingRepositoryTest {
 
     @BeforeEach
     public void beforeEach() {
-        start = LocalDateTime.now().plusDays(2);
+        start = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MILLIS);
         end = start.plusDays(7);
         bookingStatus = BookingStatus.APPROVED;
 
@@ -181,13 +185,88 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findBookingsForAddCommentsTest() {
+    void existsByItemIdAndBookerIdAndEndBeforeTest() {
+        assertTrue(bookingRepository.existsByItemIdAndBookerIdAndEndBefore(item.getId(), booker.getId(),
+                end.plusDays(1)));
+        assertFalse(bookingRepository.existsByItemIdAndBookerIdAndEndBefore(item.getId(), booker.getId(),
+                end.minusDays(1)));
+    }
+
+    @Test
+    void findIntervalsOverlappingTest() {
+        bookingRepository.save(new Booking(null, end.plusDays(10), end.plusDays(11), item, booker, bookingStatus));
+
+        List<IntervalDto> result = bookingRepository.findIntervalsOverlapping(item.getId(), bookingStatus,
+                start.plusDays(1), end.plusDays(1));
+
+        assertEquals(1, result.size());
+        assertEquals(start, result.get(0).getStart());
+        assertTrue(bookingRepository.findIntervalsOverlapping(item.getId(), bookingStatus,
+                end, end.plusDays(5)).isEmpty());
+    }
+
+    @Test
+    void findLastAndNextByItemIdsTest() {
+        Booking past = bookingRepository
+                .save(new Booking(null, start.minusDays(20), start.minusDays(15), item, booker, bookingStatus));
+        bookingRepository
+                .save(new Booking(null, start.minusDays(30), start.minusDays(25), item, booker, bookingStatus));
+        bookingRepository
+                .save(new Booking(null, end.plusDays(1), end.plusDays(2), item, booker, BookingStatus.REJECTED));
+
         List<Booking> result = bookingRepository
-                .findBookingsForAddComments(item.getId(), booker.getId(), end.plusDays(1));
+                .findLastAndNextByItemIds(List.of(item.getId()), start.minusDays(1), bookingStatus);
 
         assertNotNull(result);
-        assertFalse(result.isEmpty());
-        assertEquals(booking, result.get(0));
+        assertEquals(2, result.size());
+        assertTrue(result.contains(past));
+        assertTrue(result.contains(booking));
+    }
+
+    @Test
+    void findLastAndNextByItemIdsPicksOneBookingPerDirectionTest() {
+        Booking sameStart = bookingRepository
+                .save(new Booking(null, start, end.minusDays(1), item, booker, bookingStatus));
+        Item free = itemRepository.save(new Item(null, "item 2", "description", true,
+                User.builder().id(itemOwner.getId()).build(), null));
+
+        List<Booking> result = bookingRepository
+                .findLastAndNextByItemIds(List.of(item.getId(), free.getId()), start.minusDays(1), bookingStatus);
+
+        assertEquals(List.of(sameStart), result);
+        assertEquals(booker.getName(), result.get(0).getBooker().getName());
+    }
+
+    @Test
+    void findByBookerIdAfterTest() {
+        Booking sameStart = bookingRepository
+                .save(new Booking(null, start, end.minusDays(1), item, booker, bookingStatus));
+        Booking past = bookingRepository
+                .save(new Booking(null, start.minusDays(20), start.minusDays(15), item, booker, bookingStatus));
+
+        Slice<Booking> first = bookingRepository
+                .findByBookerIdAfter(booker.getId(), State.ALL, LocalDateTime.now(), null, 2);
+        Booking last = first.getContent().get(1);
+        Slice<Booking> second = bookingRepository
+                .findByBookerIdAfter(booker.getId(), State.ALL, LocalDateTime.now(),
+                        new BookingCursor(last.getStart(), last.getEnd(), last.getId()), 2);
+
+        assertTrue(first.hasNext());
+        assertEquals(List.of(booking, sameStart), first.getContent());
+        assertFalse(second.hasNext());
+        assertEquals(List.of(past), second.getContent());
+    }
+
+    @Test
+    void findByItemOwnerIdAfterTest() {
+        bookingRepository
+                .save(new Booking(null, start.minusDays(20), start.minusDays(15), item, booker, bookingStatus));
+
+        Slice<Booking> result = bookingRepository
+                .findByItemOwnerIdAfter(itemOwner.getId(), State.FUTURE, LocalDateTime.now(), null, 20);
+
+        assertFalse(result.hasNext());
+        assertEquals(List.of(booking), result.getContent());
     }
 
     @AfterEach
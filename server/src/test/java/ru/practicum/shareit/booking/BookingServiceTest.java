@@ -2,21 +2,25 @@ package ru.practicum.shareit.booking;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingDetailedDto;
 import ru.practicum.shareit.booking.dto.BookingPostDto;
 import ru.practicum.shareit.booking.dto.BookingPostResponseDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.InvalidBookingException;
 import ru.practicum.shareit.exception.UnavailableBookingException;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemCalendarCache;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.Request;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -25,7 +29,10 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class BookingServiceTest {
@@ -39,6 +46,7 @@ public class BookingServiceTest {
     private UserRepository userRepository;
     private ItemRepository itemRepository;
     private BookingRepository bookingRepository;
+    private ItemCalendarCache calendarCache;
 
     private User user;
     private Item item;
@@ -51,7 +59,8 @@ public class BookingServiceTest {
         userRepository = mock(UserRepository.class);
         itemRepository = mock(ItemRepository.class);
         bookingRepository = mock(BookingRepository.class);
-        bookingService = new BookingServiceImpl(userRepository, itemRepository, bookingRepository);
+        calendarCache = mock(ItemCalendarCache.class);
+        bookingService = new BookingServiceImpl(userRepository, itemRepository, bookingRepository, calendarCache);
 
         bookingPostDto = new BookingPostDto(ID, ID, DATE, DATE.plusDays(7));
         user = new User(ID, "name", "user@emali.com");
@@ -74,10 +83,13 @@ public class BookingServiceTest {
     @Test
     public void createBookingTest() {
 
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
-        when(itemRepository.findById(any(Long.class)))
+        when(userRepository.getReferenceById(any(Long.class)))
+                .thenReturn(user);
+
+        when(itemRepository.findByIdForUpdate(any(Long.class)))
                 .thenReturn(Optional.ofNullable(item));
 
         when(bookingRepository.save(any(Booking.class)))
@@ -89,6 +101,32 @@ public class BookingServiceTest {
         assertEquals(bookingPostDto.getItemId(), result.getItem().getId());
         assertEquals(bookingPostDto.getStart(), result.getStart());
         assertEquals(bookingPostDto.getEnd(), result.getEnd());
+        verify(calendarCache).invalidate(item.getId());
+    }
+
+    @Test
+    public void createBookingsCollectsErrorsTest() {
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
+
+        when(userRepository.getReferenceById(any(Long.class)))
+                .thenReturn(user);
+
+        when(itemRepository.findByIdForUpdate(any(Long.class)))
+                .thenReturn(Optional.ofNullable(item));
+
+        when(bookingRepository.save(any(Booking.class)))
+                .thenReturn(booking);
+
+        PendingBooking valid = new PendingBooking(bookingPostDto, ID);
+        PendingBooking own = new PendingBooking(bookingPostDto, owner.getId());
+
+        bookingService.createBookings(List.of(valid, own));
+
+        assertNotNull(valid.getResponse());
+        assertNull(valid.getError());
+        assertNull(own.getResponse());
+        assertInstanceOf(InvalidBookingException.class, own.getError());
     }
 
     @Test
@@ -107,10 +145,13 @@ public class BookingServiceTest {
     public void createUnavailableBooking() {
         item.setAvailable(false);
 
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
+
+        when(userRepository.getReferenceById(any(Long.class)))
+                .thenReturn(user);
 
-        when(itemRepository.findById(any(Long.class)))
+        when(itemRepository.findByIdForUpdate(any(Long.class)))
                 .thenReturn(Optional.ofNullable(item));
 
         UnavailableBookingException e = assertThrows(UnavailableBookingException.class,
@@ -123,10 +164,13 @@ public class BookingServiceTest {
     @Test
     public void createInvalidBookingTest() {
         item.setOwner(user);
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
+
+        when(userRepository.getReferenceById(any(Long.class)))
+                .thenReturn(user);
 
-        when(itemRepository.findById(any(Long.class)))
+        when(itemRepository.findByIdForUpdate(any(Long.class)))
                 .thenReturn(Optional.ofNullable(item));
 
         InvalidBookingException e = assertThrows(InvalidBookingException.class,
@@ -136,6 +180,44 @@ public class BookingServiceTest {
         assertNotNull(e);
     }
 
+    @Test
+    public void createOverlappingBookingTest() {
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
+
+        when(userRepository.getReferenceById(any(Long.class)))
+                .thenReturn(user);
+
+        when(itemRepository.findByIdForUpdate(any(Long.class)))
+                .thenReturn(Optional.ofNullable(item));
+
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                any(Long.class), any(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        assertThrows(BookingConflictException.class,
+                () -> bookingService.createBooking(bookingPostDto, ID));
+    }
+
+    @Test
+    public void approveOverlappingBookingTest() {
+        booking.setStatus(BookingStatus.WAITING);
+
+        when(bookingRepository.findById(any(Long.class)))
+                .thenReturn(Optional.ofNullable(booking));
+
+        when(itemRepository.findByIdForUpdate(any(Long.class)))
+                .thenReturn(Optional.ofNullable(item));
+
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+                any(Long.class), any(BookingStatus.class), any(LocalDateTime.class), any(LocalDateTime.class),
+                any(Long.class)))
+                .thenReturn(true);
+
+        assertThrows(BookingConflictException.class,
+                () -> bookingService.patchBooking(ID, true, ID + 1));
+    }
+
     @Test
     public void patchBookingTest() {
         booking.setStatus(BookingStatus.WAITING);
@@ -143,7 +225,7 @@ public class BookingServiceTest {
         when(bookingRepository.findById(any(Long.class)))
                 .thenReturn(Optional.ofNullable(booking));
 
-        when(itemRepository.findById(any(Long.class)))
+        when(itemRepository.findByIdForUpdate(any(Long.class)))
                 .thenReturn(Optional.ofNullable(item));
 
         when(bookingRepository.save(any(Booking.class)))
@@ -154,6 +236,39 @@ public class BookingServiceTest {
         assertNotNull(result);
         assertEquals(ID, result.getId());
         assertEquals(BookingStatus.APPROVED, result.getStatus());
+        verify(calendarCache).invalidate(item.getId());
+    }
+
+    @Test
+    public void patchBookingExclusionViolationIsConflictTest() {
+        booking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findById(any(Long.class)))
+                .thenReturn(Optional.ofNullable(booking));
+        when(itemRepository.findByIdForUpdate(any(Long.class)))
+                .thenReturn(Optional.ofNullable(item));
+        when(bookingRepository.save(any(Booking.class)))
+                .thenReturn(booking);
+        doThrow(new DataIntegrityViolationException("bookings_approved_no_overlap",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")))
+                .when(bookingRepository).flush();
+
+        assertThrows(BookingConflictException.class, () -> bookingService.patchBooking(ID, true, ID + 1));
+        verify(calendarCache, never()).invalidate(any());
+    }
+
+    @Test
+    public void patchBookingOtherIntegrityViolationIsRethrownTest() {
+        booking.setStatus(BookingStatus.WAITING);
+        when(bookingRepository.findById(any(Long.class)))
+                .thenReturn(Optional.ofNullable(booking));
+        when(itemRepository.findByIdForUpdate(any(Long.class)))
+                .thenReturn(Optional.ofNullable(item));
+        when(bookingRepository.save(any(Booking.class)))
+                .thenReturn(booking);
+        doThrow(new DataIntegrityViolationException("fk_booker", new SQLException("foreign key", "23503")))
+                .when(bookingRepository).flush();
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.patchBooking(ID, true, ID + 1));
     }
 
     @Test
@@ -163,7 +278,7 @@ public class BookingServiceTest {
         when(bookingRepository.findById(any(Long.class)))
                 .thenReturn(Optional.ofNullable(booking));
 
-        when(itemRepository.findById(any(Long.class)))
+        when(itemRepository.findByIdForUpdate(any(Long.class)))
                 .thenReturn(Optional.ofNullable(item));
 
         Exception e = assertThrows(NoSuchElementException.class,
@@ -180,7 +295,7 @@ public class BookingServiceTest {
         when(bookingRepository.findById(any(Long.class)))
                 .thenReturn(Optional.ofNullable(booking));
 
-        when(itemRepository.findById(any(Long.class)))
+        when(itemRepository.findByIdForUpdate(any(Long.class)))
                 .thenReturn(Optional.ofNullable(item));
 
         Exception e = assertThrows(IllegalArgumentException.class,
@@ -194,8 +309,8 @@ public class BookingServiceTest {
     public void findByIdTest() {
         item.setOwner(owner);
 
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository.findById(any(Long.class)))
                 .thenReturn(Optional.ofNullable(booking));
@@ -209,8 +324,8 @@ public class BookingServiceTest {
     @Test
     public void findByIdNoSuchElementExceptionTest() {
         user.setId(ID + 10);
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository.findById(any(Long.class)))
                 .thenReturn(Optional.ofNullable(booking));
@@ -224,8 +339,8 @@ public class BookingServiceTest {
 
     @Test
     public void findAllByBookerStateRejectedTest() {
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository
                 .findByBookerIdAndStatus(any(Long.class), any(BookingStatus.class), any(Pageable.class)))
@@ -240,8 +355,8 @@ public class BookingServiceTest {
 
     @Test
     public void findAllByBookerStateWaitingTest() {
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository
                 .findByBookerIdAndStatus(any(Long.class), any(BookingStatus.class), any(Pageable.class)))
@@ -256,8 +371,8 @@ public class BookingServiceTest {
 
     @Test
     public void findAllByBookerStateCurrentTest() {
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository
                 .findByBookerIdAndStartLessThanAndEndGreaterThanOrderByStartAsc(any(Long.class),
@@ -275,8 +390,8 @@ public class BookingServiceTest {
 
     @Test
     public void findAllByBookerStateFutureTest() {
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository
                 .findByBookerIdAndStartIsAfter(any(Long.class), any(LocalDateTime.class), any(Pageable.class)))
@@ -291,8 +406,8 @@ public class BookingServiceTest {
 
     @Test
     public void findAllByBookerStatePastTest() {
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository
                 .findByBookerIdAndEndIsBefore(any(Long.class), any(LocalDateTime.class), any(Pageable.class)))
@@ -307,8 +422,8 @@ public class BookingServiceTest {
 
     @Test
     public void findAllByBookerStateAllTest() {
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository
                 .findByBookerId(any(Long.class), any(Pageable.class)))
@@ -323,8 +438,8 @@ public class BookingServiceTest {
 
     @Test
     public void findAllByBookerUnsupportedStatus() {
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository
                 .findByBookerId(any(Long.class), any(Pageable.class)))
@@ -341,8 +456,8 @@ public class BookingServiceTest {
     @Test
     public void findAllByItemOwnerStateRejectedTest() {
 
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository
                 .findBookingByItemOwnerIdAndStatus(any(Long.class), any(BookingStatus.class), any(Pageable.class)))
@@ -358,8 +473,8 @@ public class BookingServiceTest {
     @Test
     public void findAllByItemOwnerStateWaitingTest() {
 
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository
                 .findBookingByItemOwnerIdAndStatus(any(Long.class), any(BookingStatus.class), any(Pageable.class)))
@@ -375,8 +490,8 @@ public class BookingServiceTest {
     @Test
     public void findAllByItemOwnerStateCurrentTest() {
 
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository
                 .findBookingsByItemOwnerIdCurrent(any(Long.class), any(LocalDateTime.class), any(Pageable.class)))
@@ -392,8 +507,8 @@ public class BookingServiceTest {
     @Test
     public void findAllByItemOwnerStateFutureTest() {
 
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository
                 .findBookingByItemOwnerIdAndStartIsAfter(any(Long.class), any(LocalDateTime.class), any(Pageable.class)))
@@ -409,8 +524,8 @@ public class BookingServiceTest {
     @Test
     public void findAllByItemOwnerStatePastTest() {
 
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository
                 .findBookingByItemOwnerIdAndEndIsBefore(any(Long.class), any(LocalDateTime.class), any(Pageable.class)))
@@ -426,8 +541,8 @@ public class BookingServiceTest {
     @Test
     public void findAllByItemOwnerStateAllTest() {
 
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(bookingRepository
                 .findBookingByItemOwnerId(any(Long.class), any(Pageable.class)))
@@ -439,4 +554,15 @@ public class BookingServiceTest {
         assertNotNull(result);
         assertFalse(result.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void findAllAfterCursorWithZeroSizeTest() {
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.findAllByBookerAfter("all", ID, "", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.findAllByItemOwnerAfter("all", ID, "", 0));
+    }
+}
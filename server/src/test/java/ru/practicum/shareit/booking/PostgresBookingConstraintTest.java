@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class PostgresBookingConstraintTest {
+
+    public static final String APPROVE_SQL = "update bookings set status = 'APPROVED' where id = ?";
+    public static final String EXCLUSION_VIOLATION = "23P01";
+    public static final long LOCK_WAIT_TIMEOUT_MILLIS = 10_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13.7-alpine");
+
+    private final MockMvc mvc;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+
+    private User owner;
+    private Booking first;
+    private Booking second;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        owner = userRepository.save(new User(null, "owner", "owner@postgres.com"));
+        User booker = userRepository.save(new User(null, "booker", "booker@postgres.com"));
+        Item item = itemRepository.save(new Item(null, "item", "description", true, owner, null));
+        first = bookingRepository.save(new Booking(null, start, start.plusDays(2), item, booker,
+                BookingStatus.WAITING));
+        second = bookingRepository.save(new Booking(null, start.plusDays(1), start.plusDays(3), item, booker,
+                BookingStatus.WAITING));
+    }
+
+    @AfterEach
+    public void afterEach() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void constraintRejectsOverlappingApprovedBookingsTest() {
+        jdbcTemplate.update(APPROVE_SQL, first.getId());
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update(APPROVE_SQL, second.getId()));
+
+        assertEquals(EXCLUSION_VIOLATION, ((SQLException) e.getMostSpecificCause()).getSQLState());
+    }
+
+    @Test
+    public void exclusionViolationIsReportedAsConflictTest() throws Exception {
+        try (Connection concurrent = dataSource.getConnection()) {
+            concurrent.setAutoCommit(false);
+            try (PreparedStatement statement = concurrent.prepareStatement(APPROVE_SQL)) {
+                statement.setLong(1, first.getId());
+                statement.executeUpdate();
+            }
+
+            CompletableFuture<Integer> approval = CompletableFuture.supplyAsync(this::approveSecond);
+            awaitLockWait();
+            concurrent.commit();
+
+            assertEquals(HttpStatus.CONFLICT.value(), approval.get(LOCK_WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        }
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(second.getId()).orElseThrow().getStatus());
+    }
+
+    private int approveSecond() {
+        try {
+            return mvc.perform(patch("/bookings/{bookingId}", second.getId())
+                            .param("approved", "true")
+                            .header("X-Sharer-User-Id", owner.getId()))
+                    .andReturn()
+                    .getResponse()
+                    .getStatus();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitLockWait() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + LOCK_WAIT_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            Integer waiting = jdbcTemplate.queryForObject(
+                    "select count(*) from pg_stat_activity where wait_event_type = 'Lock'", Integer.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("approval never waited for the concurrent transaction");
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@AutoConfigureMetrics
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class MetricsTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    public void routeHistogramsAreScrapeableTest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(UserHeaderTagsContributor.USER_ID_HEADER, "1");
+        rest.exchange("/requests", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        rest.getForEntity("/users", String.class);
+
+        ResponseEntity<String> response = rest.getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String body = response.getBody();
+        assertTrue(body.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(body.matches("(?s).*http_server_requests_seconds_count\\{[^}]*uri=\"/users\"[^}]*user=\"absent\".*"));
+        assertTrue(body.matches("(?s).*http_server_requests_seconds_count\\{[^}]*uri=\"/requests\"[^}]*user=\"present\".*"));
+        assertTrue(body.contains("quantile=\"0.99\""));
+    }
+}
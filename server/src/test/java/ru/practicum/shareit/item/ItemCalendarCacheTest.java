@@ -0,0 +1,128 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingPostDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemCalendarCacheTest {
+
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    private final LocalDateTime end = start.plusDays(7);
+    private User owner;
+    private User booker;
+    private Item item;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void beforeEach() {
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = new User(null, "owner", "owner@calendar.com");
+            booker = new User(null, "booker", "booker@calendar.com");
+            item = new Item(null, "item", "description", true, owner, null);
+            em.persist(owner);
+            em.persist(booker);
+            em.persist(item);
+        });
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void findCalendarServedFromCacheTest() {
+        itemService.findCalendar(item.getId(), start, end);
+        statistics.clear();
+
+        ItemCalendarDto result = itemService.findCalendar(item.getId(), start.plusDays(1), end);
+
+        assertTrue(result.getBusy().isEmpty());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void windowBeyondHorizonIsNotCachedTest() {
+        LocalDateTime farStart = start.plusYears(1);
+        itemService.findCalendar(item.getId(), farStart, farStart.plusDays(7));
+        statistics.clear();
+
+        itemService.findCalendar(item.getId(), farStart, farStart.plusDays(7));
+
+        assertTrue(statistics.getPrepareStatementCount() > 0);
+    }
+
+    @Test
+    public void approveBookingInvalidatesCalendarTest() {
+        assertTrue(itemService.findCalendar(item.getId(), start, end).getBusy().isEmpty());
+        Long bookingId = bookingService.createBooking(
+                new BookingPostDto(null, item.getId(), start.plusDays(1), start.plusDays(2)), booker.getId()).getId();
+        assertTrue(itemService.findCalendar(item.getId(), start, end).getBusy().isEmpty());
+
+        bookingService.patchBooking(bookingId, true, owner.getId());
+        ItemCalendarDto result = itemService.findCalendar(item.getId(), start, end);
+
+        assertEquals(1, result.getBusy().size());
+        assertEquals(start.plusDays(1), result.getBusy().get(0).getStart());
+        assertEquals(2, result.getFree().size());
+    }
+
+    @Test
+    public void disabledCacheCallsLoaderEveryTimeTest() {
+        ItemCalendarProperties properties = new ItemCalendarProperties();
+        properties.setEnabled(false);
+        ItemCalendarCache disabled = new ItemCalendarCache(properties, new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+
+        BiFunction<LocalDateTime, LocalDateTime, List<IntervalDto>> loader = (from, to) -> {
+            loads.incrementAndGet();
+            return List.of(new IntervalDto(start, end));
+        };
+
+        disabled.get(item.getId(), start, end, loader);
+        disabled.get(item.getId(), start, end, loader);
+
+        assertEquals(2, loads.get());
+    }
+}
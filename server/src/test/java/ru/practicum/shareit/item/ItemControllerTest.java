@@ -10,11 +10,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.DetailedCommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
@@ -146,7 +149,8 @@ public class ItemControllerTest {
 
     @Test
     public void findItemsByRequestTest() throws Exception {
-        when(itemService.findItemsByRequest(any(String.class), any(Long.class), any(Integer.class), any(Integer.class)))
+        when(itemService.findItemsByRequest(any(String.class), any(Long.class), any(), any(), any(Integer.class),
+                any(Integer.class)))
                 .thenReturn(new ArrayList<>());
 
         mvc.perform(get("/items/search")
@@ -158,7 +162,25 @@ public class ItemControllerTest {
                 .andExpect(content().json("[]"));
 
         verify(itemService, times(1))
-                .findItemsByRequest(any(String.class), any(Long.class), any(Integer.class), any(Integer.class));
+                .findItemsByRequest(any(String.class), any(Long.class), any(), any(), any(Integer.class),
+                        any(Integer.class));
+    }
+
+    @Test
+    public void findCalendarTest() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(1);
+        when(itemService.findCalendar(1L, start, end))
+                .thenReturn(new ItemCalendarDto(1L, start, end, List.of(), List.of(new IntervalDto(start, end))));
+
+        mvc.perform(get("/items/1/calendar")
+                        .param("start", start.toString())
+                        .param("end", end.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1)))
+                .andExpect(jsonPath("$.free[0].start", is("2030-01-01T10:00:00")));
+
+        verify(itemService, times(1)).findCalendar(1L, start, end);
     }
 
     private DetailedCommentDto generateResponseCommentDto(Long id, CreateCommentDto dto) {
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.PageImpl;
@@ -12,6 +13,8 @@ import ru.practicum.shareit.exception.DeniedAccessException;
 import ru.practicum.shareit.exception.OwnerNotFoundException;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.DetailedCommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -27,9 +30,10 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 public class ItemServiceTest {
 
@@ -61,7 +65,8 @@ public class ItemServiceTest {
                 itemRepository,
                 userRepository,
                 bookingRepository,
-                commentRepository);
+                commentRepository,
+                new ItemCalendarCache(new ItemCalendarProperties(), new SimpleMeterRegistry()));
 
         user = new User(ID, "name", "user@emali.com");
         item = Item.builder()
@@ -96,8 +101,11 @@ public class ItemServiceTest {
     @Test
     public void createItemTest() {
 
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
+
+        when(userRepository.getReferenceById(anyLong()))
+                .thenReturn(user);
 
         when(itemRepository.save(any(Item.class)))
                 .thenReturn(item);
@@ -126,15 +134,18 @@ public class ItemServiceTest {
 
     @Test
     public void createCommentTest() {
-        when(itemRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(item));
+        when(itemRepository.existsById(any(Long.class)))
+                .thenReturn(true);
+
+        when(itemRepository.getReferenceById(any(Long.class)))
+                .thenReturn(item);
 
         when(userRepository.findById(any(Long.class)))
                 .thenReturn(Optional.ofNullable(user));
 
         when(bookingRepository
-                .findBookingsForAddComments(any(Long.class), any(Long.class), any(LocalDateTime.class)))
-                .thenReturn(Collections.singletonList(booking));
+                .existsByItemIdAndBookerIdAndEndBefore(any(Long.class), any(Long.class), any(LocalDateTime.class)))
+                .thenReturn(true);
 
         when(commentRepository.save(any(Comment.class)))
                 .thenReturn(comment);
@@ -148,15 +159,18 @@ public class ItemServiceTest {
 
     @Test
     public void createCommentExceptionTest() {
-        when(itemRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(item));
+        when(itemRepository.existsById(any(Long.class)))
+                .thenReturn(true);
+
+        when(itemRepository.getReferenceById(any(Long.class)))
+                .thenReturn(item);
 
         when(userRepository.findById(any(Long.class)))
                 .thenReturn(Optional.ofNullable(user));
 
         when(bookingRepository
-                .findBookingsForAddComments(any(Long.class), any(Long.class), any(LocalDateTime.class)))
-                .thenReturn(Collections.emptyList());
+                .existsByItemIdAndBookerIdAndEndBefore(any(Long.class), any(Long.class), any(LocalDateTime.class)))
+                .thenReturn(false);
 
         CommentException result = assertThrows(CommentException.class, () -> {
             itemService.createComment(createCommentDto, ID, ID);
@@ -170,8 +184,11 @@ public class ItemServiceTest {
         itemDto.setName("updatedName");
         item.setName("updatedName");
 
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
+
+        when(userRepository.getReferenceById(anyLong()))
+                .thenReturn(user);
 
         when(commentRepository.findByItemId(any(Long.class)))
                 .thenReturn(new ArrayList<>());
@@ -193,8 +210,11 @@ public class ItemServiceTest {
     public void updateItemDeniedExcessTest() {
         item.setOwner(User.builder().id(ID + 1).build());
 
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
+
+        when(userRepository.getReferenceById(anyLong()))
+                .thenReturn(user);
 
         when(commentRepository.findByItemId(any(Long.class)))
                 .thenReturn(new ArrayList<>());
@@ -234,12 +254,31 @@ public class ItemServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    public void findAllItemsLoadsOnlyPageBookingsTest() {
+        when(itemRepository.findByOwnerId(any(Long.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(item)));
+
+        when(bookingRepository.findLastAndNextByItemIds(anyList(), any(LocalDateTime.class), any(BookingStatus.class)))
+                .thenReturn(List.of(booking));
+
+        List<ItemDto> result = itemService.findAllItems(ID, FROM_VALUE, SIZE_VALUE);
+
+        assertEquals(1, result.size());
+        assertEquals(booking.getId(), result.get(0).getLastBooking().getId());
+        assertNull(result.get(0).getNextBooking());
+        verify(bookingRepository, never()).findAll();
+        verify(itemRepository, never()).findAllByOwnerId(any(Long.class));
+        verify(bookingRepository)
+                .findLastAndNextByItemIds(eq(List.of(ID)), any(LocalDateTime.class), eq(BookingStatus.APPROVED));
+    }
+
     @Test
     public void findItemsByRequestTest() {
         when(itemRepository.search(any(String.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(new ArrayList<>()));
+                .thenReturn(new ArrayList<>());
 
-        List<ItemDto> result = itemService.findItemsByRequest("request", ID, FROM_VALUE, SIZE_VALUE);
+        List<ItemDto> result = itemService.findItemsByRequest("request", ID, null, null, FROM_VALUE, SIZE_VALUE);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -247,8 +286,57 @@ public class ItemServiceTest {
 
     @Test
     public void findItemsByBlankRequest() {
-        List<ItemDto> result = itemService.findItemsByRequest("", ID, FROM_VALUE, SIZE_VALUE);
+        List<ItemDto> result = itemService.findItemsByRequest("", ID, null, null, FROM_VALUE, SIZE_VALUE);
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void findFreeItemsByRequestTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        when(itemRepository.searchFree(any(String.class), eq(start), eq(end), eq(BookingStatus.APPROVED),
+                any(Pageable.class)))
+                .thenReturn(new ArrayList<>());
+
+        List<ItemDto> result = itemService.findItemsByRequest("request", ID, start, end, FROM_VALUE, SIZE_VALUE);
+
         assertNotNull(result);
         assertTrue(result.isEmpty());
+        verify(itemRepository, never()).search(any(String.class), any(Pageable.class));
+    }
+
+    @Test
+    public void findItemsByRequestWithInvalidIntervalTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> itemService.findItemsByRequest("request", ID, start, start, FROM_VALUE, SIZE_VALUE));
+        assertThrows(IllegalArgumentException.class,
+                () -> itemService.findItemsByRequest("request", ID, start, null, FROM_VALUE, SIZE_VALUE));
+    }
+
+    @Test
+    public void findCalendarTest() {
+        LocalDateTime start = CREATED_DATE.plusDays(1);
+        when(itemRepository.findById(ID))
+                .thenReturn(Optional.of(item));
+        when(bookingRepository.findIntervalsOverlapping(eq(ID), eq(BookingStatus.APPROVED),
+                any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(new IntervalDto(start.plusDays(1), start.plusDays(2))));
+
+        itemService.findCalendar(ID, start, start.plusDays(3));
+        ItemCalendarDto result = itemService.findCalendar(ID, start, start.plusDays(3));
+
+        assertEquals(1, result.getBusy().size());
+        assertEquals(2, result.getFree().size());
+        verify(bookingRepository, times(1)).findIntervalsOverlapping(eq(ID), eq(BookingStatus.APPROVED),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    public void findCalendarWithInvalidIntervalTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> itemService.findCalendar(ID, CREATED_DATE, CREATED_DATE));
     }
-}
\ No newline at end of file
+}
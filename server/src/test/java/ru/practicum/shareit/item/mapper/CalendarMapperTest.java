@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item.mapper;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemCalendarDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalendarMapperTest {
+
+    public static final long ID = 1L;
+    public static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    public void mergeIntervalsTest() {
+        List<IntervalDto> result = CalendarMapper.mergeIntervals(List.of(
+                interval(0, 2),
+                interval(1, 3),
+                interval(3, 4),
+                interval(6, 8),
+                interval(6, 7)));
+
+        assertEquals(2, result.size());
+        assertInterval(0, 4, result.get(0));
+        assertInterval(6, 8, result.get(1));
+    }
+
+    @Test
+    public void mergeEmptyIntervalsTest() {
+        assertTrue(CalendarMapper.mergeIntervals(List.of()).isEmpty());
+    }
+
+    @Test
+    public void toCalendarDtoClipsToWindowTest() {
+        List<IntervalDto> merged = List.of(interval(0, 4), interval(6, 8), interval(10, 12), interval(20, 30));
+
+        ItemCalendarDto result = CalendarMapper.toCalendarDto(ID, merged, hour(2), hour(11));
+
+        assertEquals(ID, result.getItemId());
+        assertEquals(3, result.getBusy().size());
+        assertInterval(2, 4, result.getBusy().get(0));
+        assertInterval(6, 8, result.getBusy().get(1));
+        assertInterval(10, 11, result.getBusy().get(2));
+        assertEquals(2, result.getFree().size());
+        assertInterval(4, 6, result.getFree().get(0));
+        assertInterval(8, 10, result.getFree().get(1));
+    }
+
+    @Test
+    public void toCalendarDtoWithoutBookingsTest() {
+        ItemCalendarDto result = CalendarMapper.toCalendarDto(ID, List.of(interval(0, 1)), hour(5), hour(9));
+
+        assertTrue(result.getBusy().isEmpty());
+        assertEquals(1, result.getFree().size());
+        assertInterval(5, 9, result.getFree().get(0));
+    }
+
+    private static LocalDateTime hour(int hours) {
+        return BASE.plusHours(hours);
+    }
+
+    private static IntervalDto interval(int start, int end) {
+        return new IntervalDto(hour(start), hour(end));
+    }
+
+    private static void assertInterval(int start, int end, IntervalDto interval) {
+        assertEquals(hour(start), interval.getStart());
+        assertEquals(hour(end), interval.getEnd());
+    }
+}
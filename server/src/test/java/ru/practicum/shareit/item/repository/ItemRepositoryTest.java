@@ -7,6 +7,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.Request;
@@ -14,6 +17,7 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,15 +31,18 @@ public class ItemRepositoryTest {
     private ItemRepository itemRepository;
     @Autowired
     private ItemRequestRepository requestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
 
     private User itemOwner;
+    private User user;
     private Item item;
     private Request request;
 
     @BeforeEach
     public void beforeEach() {
         itemOwner = userRepository.save(new User(1L, "owner", "owner@email"));
-        User user = userRepository.save(new User(2L, "user", "user@email"));
+        user = userRepository.save(new User(2L, "user", "user@email"));
         item = itemRepository.save(new Item(
                 null,
                 "item",
@@ -54,11 +61,47 @@ public class ItemRepositoryTest {
 
     @Test
     public void searchTest() {
-        Page<Item> result = itemRepository.search("description", Pageable.unpaged());
+        List<Item> result = itemRepository.search("description", Pageable.unpaged());
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
-        assertEquals(item, result.getContent().get(0));
+        assertEquals(item, result.get(0));
+    }
+
+    @Test
+    public void searchSkipsUnavailableTest() {
+        itemRepository.save(new Item(
+                null,
+                "unavailable",
+                "description",
+                false,
+                itemOwner,
+                null));
+
+        List<Item> result = itemRepository.search("unavailable", Pageable.unpaged());
+
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void searchFreeTest() {
+        LocalDateTime start = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = start.plusDays(2);
+        Item busy = itemRepository.save(new Item(null, "busy", "description", true, itemOwner, null));
+        Item waiting = itemRepository.save(new Item(null, "waiting", "description", true, itemOwner, null));
+        bookingRepository.save(new Booking(null, start.minusDays(1), start.plusDays(1), busy, user,
+                BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, start.plusHours(1), end, waiting, user, BookingStatus.WAITING));
+        bookingRepository.save(new Booking(null, end, end.plusDays(1), item, user, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, start.minusDays(2), start, item, user, BookingStatus.APPROVED));
+
+        List<Item> result = itemRepository.searchFree("description", start, end, BookingStatus.APPROVED,
+                Pageable.unpaged());
+
+        assertNotNull(result);
+        assertTrue(result.containsAll(List.of(item, waiting)));
+        assertFalse(result.contains(busy));
     }
 
     @Test
@@ -73,8 +116,8 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    public void findAllByRequestIdTest() {
-        List<Item> result = itemRepository.findAllByRequestId(request.getId());
+    public void findAllByRequestIdInTest() {
+        List<Item> result = itemRepository.findAllByRequestIdIn(List.of(request.getId()));
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.request.dto.RequestWithItemsDto;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class IntegrationItemRequestServiceTest {
+
+    public static final int REQUESTS_COUNT = 20;
+    public static final long MAX_STATEMENTS = 3;
+
+    private final EntityManager em;
+    private final EntityManagerFactory emf;
+    private final ItemRequestService itemRequestService;
+
+    private User viewer;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void beforeEach() {
+        viewer = persistUser("viewer");
+        for (int i = 0; i < REQUESTS_COUNT; i++) {
+            User requestor = persistUser("requestor" + i);
+            User owner = persistUser("owner" + i);
+            Request request = new Request(null, "description" + i, requestor, LocalDateTime.now());
+            em.persist(request);
+            em.persist(new Item(null, "item" + i, "description" + i, true, owner, request));
+        }
+        em.flush();
+        em.clear();
+
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    public void findAllUsesConstantStatementsTest() {
+        List<RequestWithItemsDto> result = itemRequestService.findAll(0, REQUESTS_COUNT, viewer.getId());
+
+        assertEquals(REQUESTS_COUNT, result.size());
+        result.forEach(request -> assertEquals(1, request.getItems().size()));
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void findAllByUserIdUsesConstantStatementsTest() {
+        User requestor = em.createQuery("select u from users u where u.name = 'requestor0'", User.class)
+                .getSingleResult();
+        statistics.clear();
+
+        List<RequestWithItemsDto> result = itemRequestService.findAllByUserId(requestor.getId());
+
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getItems().size());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    private User persistUser(String name) {
+        User user = new User(null, name, name + "@email.com");
+        em.persist(user);
+        return user;
+    }
+}
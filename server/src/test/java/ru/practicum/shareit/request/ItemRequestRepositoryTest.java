@@ -5,7 +5,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
@@ -50,13 +49,13 @@ public class ItemRequestRepositoryTest {
 
     @Test
     public void findAllTest() {
-        Page<Request> result = itemRequestRepository.findAll(user.getId(), Pageable.unpaged());
+        List<Request> result = itemRequestRepository.findAll(user.getId(), Pageable.unpaged());
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
-        assertEquals(request.getDescription(), result.getContent().get(0).getDescription());
-        assertEquals(request.getRequestor(), result.getContent().get(0).getRequestor());
-        assertEquals(request.getCreated(), result.getContent().get(0).getCreated());
+        assertEquals(request.getDescription(), result.get(0).getDescription());
+        assertEquals(request.getRequestor(), result.get(0).getRequestor());
+        assertEquals(request.getCreated(), result.get(0).getCreated());
     }
 
     @AfterEach
@@ -3,7 +3,6 @@ package ru.practicum.shareit.request;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.PostRequestDto;
@@ -19,6 +18,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -55,8 +55,11 @@ public class ItemRequestServiceTest {
     public void createRequestTest() {
         PostRequestDto inputDto = new PostRequestDto(request.getDescription());
 
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
+
+        when(userRepository.getReferenceById(any(Long.class)))
+                .thenReturn(user);
 
         when(requestRepository.save(any(Request.class)))
                 .thenReturn(request);
@@ -70,14 +73,14 @@ public class ItemRequestServiceTest {
 
     @Test
     void findAllByUserIdTest() {
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(requestRepository
                 .findRequestByRequestorIdOrderByCreatedDesc(any(Long.class)))
                 .thenReturn(new ArrayList<>());
 
-        when(itemRepository.findAllByRequestId(any(Long.class)))
+        when(itemRepository.findAllByRequestIdIn(anyList()))
                 .thenReturn(new ArrayList<>());
 
         List<RequestWithItemsDto> result = requestService.findAllByUserId(ID);
@@ -88,13 +91,13 @@ public class ItemRequestServiceTest {
 
     @Test
     void findAllTest() {
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(requestRepository.findAll(any(Long.class), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(new ArrayList<>()));
+                .thenReturn(new ArrayList<>());
 
-        when(itemRepository.findAllByRequestId(any(Long.class)))
+        when(itemRepository.findAllByRequestIdIn(anyList()))
                 .thenReturn(new ArrayList<>());
 
         List<RequestWithItemsDto> result = requestService.findAll(FROM_VALUE, SIZE_VALUE, ID);
@@ -105,13 +108,13 @@ public class ItemRequestServiceTest {
 
     @Test
     void findByIdTest() {
-        when(userRepository.findById(any(Long.class)))
-                .thenReturn(Optional.ofNullable(user));
+        when(userRepository.existsById(any(Long.class)))
+                .thenReturn(true);
 
         when(requestRepository.findById(any(Long.class)))
                 .thenReturn(Optional.ofNullable(request));
 
-        when(itemRepository.findAllByRequestId(any(Long.class)))
+        when(itemRepository.findAllByRequestIdIn(anyList()))
                 .thenReturn(new ArrayList<>());
 
 
@@ -2,9 +2,7 @@ package ru.practicum.shareit.request;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.request.dto.PostRequestDto;
 import ru.practicum.shareit.request.dto.PostResponseRequestDto;
 import ru.practicum.shareit.request.dto.RequestWithItemsDto;
@@ -14,9 +12,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.mock;
 
 public class RequestMapperTest {
 
@@ -25,11 +23,9 @@ public class RequestMapperTest {
 
     private Request request;
     private PostRequestDto postRequestDto;
-    private ItemRepository itemRepository;
 
     @BeforeEach
     public void beforeEach() {
-        itemRepository = mock(ItemRepository.class);
         request = Request.builder()
                 .id(ID)
                 .description("description")
@@ -41,7 +37,7 @@ public class RequestMapperTest {
 
     @Test
     public void toModelTest() {
-        Request result = RequestMapper.toModel(postRequestDto, ID);
+        Request result = RequestMapper.toModel(postRequestDto, User.builder().id(ID).build());
 
         assertNotNull(result);
         assertEquals(ID, result.getRequestor().getId());
@@ -72,16 +68,25 @@ public class RequestMapperTest {
     @Test
     public void toRequestWithItemsDtoListTest() {
         List<Request> requests = Collections.singletonList(request);
-        Page<Request> page = new PageImpl<>(requests);
-
-        List<RequestWithItemsDto> fromList = RequestMapper.toRequestWithItemsDtoList(page, itemRepository);
-        List<RequestWithItemsDto> fromPage = RequestMapper.toRequestWithItemsDtoList(requests, itemRepository);
+        Item item = Item.builder()
+                .id(ID)
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(User.builder().id(ID + 1).build())
+                .request(request)
+                .build();
 
-        assertNotNull(fromList);
-        assertNotNull(fromPage);
-        assertEquals(request.getId(), fromList.get(0).getId());
-        assertEquals(request.getId(), fromPage.get(0).getId());
-        assertTrue(fromList.get(0).getItems().isEmpty());
-        assertTrue(fromPage.get(0).getItems().isEmpty());
+        List<RequestWithItemsDto> withItems = RequestMapper.toRequestWithItemsDtoList(requests,
+                Map.of(ID, List.of(item)));
+        List<RequestWithItemsDto> withoutItems = RequestMapper.toRequestWithItemsDtoList(requests,
+                Collections.emptyMap());
+
+        assertNotNull(withItems);
+        assertNotNull(withoutItems);
+        assertEquals(request.getId(), withItems.get(0).getId());
+        assertEquals(request.getId(), withoutItems.get(0).getId());
+        assertEquals(item.getId(), withItems.get(0).getItems().get(0).getId());
+        assertTrue(withoutItems.get(0).getItems().isEmpty());
     }
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Transactional
 @SpringBootTest(
@@ -47,6 +48,21 @@ public class IntegrationUserServiceTest {
         service.deleteUserById(userDto.getId());
     }
 
+    @Test
+    public void manualInsertTakesIdFromSequenceTest() {
+        UserDto first = service.createUser(generateUserDto());
+        em.createNativeQuery("insert into users (name, email) values ('manual', 'manual@email.com')")
+                .executeUpdate();
+        UserDto second = service.createUser(new UserDto(null, "second", "second@email.com"));
+        em.flush();
+
+        Long manualId = ((Number) em.createNativeQuery("select id from users where email = 'manual@email.com'")
+                .getSingleResult()).longValue();
+
+        assertEquals(first.getId() + 1, second.getId());
+        assertTrue(manualId > second.getId(), "manual id " + manualId + " inside the Hibernate block");
+    }
+
     private UserDto generateUserDto() {
         UserDto dto = new UserDto();
         dto.setEmail("user@email.com");
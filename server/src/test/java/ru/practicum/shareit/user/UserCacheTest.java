@@ -0,0 +1,71 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class UserCacheTest {
+    private final EntityManagerFactory emf;
+    private final UserService service;
+
+    private UserDto savedUser;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void beforeEach() {
+        savedUser = service.createUser(new UserDto(null, "cached", "cached@email.com"));
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        service.deleteUserById(savedUser.getId());
+    }
+
+    @Test
+    public void findUserByIdServedFromSecondLevelCacheTest() {
+        service.findUserById(savedUser.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        UserDto result = service.findUserById(savedUser.getId());
+
+        assertEquals(savedUser.getName(), result.getName());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    public void updateUserRefreshesSecondLevelCacheTest() {
+        service.findUserById(savedUser.getId());
+
+        service.updateUser(savedUser.getId(), new UserDto(null, "updated", null));
+
+        assertEquals("updated", service.findUserById(savedUser.getId()).getName());
+    }
+
+    @Test
+    public void deleteUserEvictsSecondLevelCacheTest() {
+        UserDto removed = service.createUser(new UserDto(null, "removed", "removed@email.com"));
+        service.findUserById(removed.getId());
+        assertTrue(emf.getCache().contains(User.class, removed.getId()));
+
+        service.deleteUserById(removed.getId());
+
+        assertThrows(NoSuchElementException.class, () -> service.findUserById(removed.getId()));
+    }
+}